@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.dependency.testUtils.DependencyArtifactStubFactory;
+
+/**
+ * Synthetic artifact sets shared by the benchmarks.
+ *
+ * @author marvin
+ */
+final class BenchmarkArtifacts {
+
+    private static final String[] SCOPES = { Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME, Artifact.SCOPE_TEST,
+            Artifact.SCOPE_PROVIDED };
+
+    private BenchmarkArtifacts() {
+    }
+
+    /**
+     * @param prefix temporary directory name prefix.
+     * @return a new temporary directory.
+     * @throws IOException if the directory can't be created.
+     */
+    static File createTempDirectory(String prefix)
+            throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    /**
+     * Creates artifacts spread over 100 groups and all scopes, one in ten is a snapshot.
+     *
+     * @param repository directory receiving the artifact files.
+     * @param count number of artifacts.
+     * @param createFiles <code>true</code> to create the artifact files.
+     * @return the artifacts.
+     * @throws IOException if a file can't be created.
+     */
+    static List<Artifact> create(File repository, int count, boolean createFiles)
+            throws IOException {
+        final DependencyArtifactStubFactory factory = new DependencyArtifactStubFactory(repository, createFiles);
+        final List<Artifact> artifacts = new ArrayList<Artifact>(count);
+        for (int i = 0; i < count; i++) {
+            artifacts.add(factory.createArtifact("org.bench.group" + (i % 100), "artifact-" + i,
+                    i % 10 == 0 ? "1.0-SNAPSHOT" : "1.0", SCOPES[i % SCOPES.length]));
+        }
+        return artifacts;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.benchmarks;
+
+import java.io.File;
+import java.nio.file.FileSystemException;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.dependency.AbstractDependencyMojo;
+import org.apache.maven.plugins.dependency.HardLinkCapabilities;
+import org.apache.maven.plugins.dependency.InvalidCrossDeviceLinkFallback;
+import org.apache.maven.plugins.dependency.utils.DependencySilentLog;
+
+/**
+ * Mojo exposing {@link AbstractDependencyMojo#linkFile(File, File)} without a Maven session. Hard links can be made to
+ * fail up front, as they do across devices, so the fallback actions can be measured on a single file system.
+ *
+ * @author marvin
+ */
+final class BenchmarkMojo
+        extends AbstractDependencyMojo {
+
+    private final HardLinkCapabilities hardLinkCapabilities;
+
+    BenchmarkMojo(InvalidCrossDeviceLinkFallback fallbackAction, boolean failHardLinks) {
+        setFallbackAction(fallbackAction);
+        setLog(new DependencySilentLog());
+        if (failHardLinks) {
+            final FileSystemException failure = new FileSystemException("Invalid cross-device link");
+            hardLinkCapabilities = new HardLinkCapabilities() {
+                @Override
+                public FileSystemException getFailure(Path source, Path target) {
+                    return failure;
+                }
+            };
+        } else {
+            hardLinkCapabilities = new HardLinkCapabilities();
+        }
+    }
+
+    @Override
+    protected synchronized HardLinkCapabilities getHardLinkCapabilities() {
+        return hardLinkCapabilities;
+    }
+
+    @Override
+    protected void doExecute() {
+    }
+
+    void link(File source, File target)
+            throws MojoExecutionException {
+        linkFile(source, target);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Destination names and directories of a whole artifact set, as computed for each artifact by the link goals.
+ *
+ * @author marvin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DependencyUtilBenchmark {
+
+    @Param({ "100", "1000", "10000", "50000" })
+    public int artifactCount;
+
+    @Param({ "flat", "perScopeAndType", "perArtifact", "repository" })
+    public String layout;
+
+    private File workingDirectory;
+
+    private File outputDirectory;
+
+    private List<Artifact> artifacts;
+
+    @Setup(Level.Trial)
+    public void createArtifacts()
+            throws IOException {
+        workingDirectory = BenchmarkArtifacts.createTempDirectory("dependency-util-benchmark");
+        outputDirectory = new File(workingDirectory, "output");
+        artifacts = BenchmarkArtifacts.create(new File(workingDirectory, "repository"), artifactCount, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory()
+            throws IOException {
+        FileUtils.deleteDirectory(workingDirectory);
+    }
+
+    @Benchmark
+    public void getFormattedFileName(Blackhole blackhole) {
+        for (final Artifact artifact : artifacts) {
+            blackhole.consume(DependencyUtil.getFormattedFileName(artifact, false, true, true, false));
+        }
+    }
+
+    @Benchmark
+    public void getFormattedOutputDirectory(Blackhole blackhole) {
+        final boolean perScopeAndType = "perScopeAndType".equals(layout);
+        final boolean perArtifact = "perArtifact".equals(layout);
+        final boolean repository = "repository".equals(layout);
+        for (final Artifact artifact : artifacts) {
+            blackhole.consume(DependencyUtil.getFormattedOutputDirectory(perScopeAndType, perScopeAndType,
+                    perArtifact, repository, false, outputDirectory, artifact));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.apache.maven.plugins.dependency.utils.DirectorySnapshotIndex;
+import org.apache.maven.plugins.dependency.utils.filters.DestFileFilter;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DestFileFilter#isArtifactIncluded(Artifact)} over a whole artifact set whose destinations already are links to
+ * the artifacts. A cold run starts with an empty destination index, a warm run reuses the index of the previous runs.
+ *
+ * @author marvin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DestFileFilterBenchmark {
+
+    @Param({ "100", "1000", "10000", "50000" })
+    public int artifactCount;
+
+    @Param({ "cold", "warm" })
+    public String directory;
+
+    private File workingDirectory;
+
+    private File outputDirectory;
+
+    private List<Artifact> artifacts;
+
+    private DestFileFilter warmFilter;
+
+    @Setup(Level.Trial)
+    public void linkArtifacts()
+            throws IOException {
+        workingDirectory = BenchmarkArtifacts.createTempDirectory("dest-file-filter-benchmark");
+        artifacts = BenchmarkArtifacts.create(new File(workingDirectory, "repository"), artifactCount, true);
+
+        outputDirectory = new File(workingDirectory, "output");
+        Files.createDirectories(outputDirectory.toPath());
+        for (final Artifact artifact : artifacts) {
+            Files.createLink(new File(outputDirectory, DependencyUtil.getFormattedFileName(artifact, false)).toPath(),
+                    artifact.getFile().toPath());
+        }
+
+        warmFilter = newFilter();
+        filterAll(warmFilter);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory()
+            throws IOException {
+        FileUtils.deleteDirectory(workingDirectory);
+    }
+
+    @Benchmark
+    public int isArtifactIncluded() {
+        return filterAll("warm".equals(directory) ? warmFilter : newFilter());
+    }
+
+    private int filterAll(DestFileFilter filter) {
+        int included = 0;
+        for (final Artifact artifact : artifacts) {
+            if (filter.isArtifactIncluded(artifact)) {
+                included++;
+            }
+        }
+        return included;
+    }
+
+    private DestFileFilter newFilter() {
+        final DestFileFilter filter = new DestFileFilter(false, false, true, false, false, false, false, false,
+                false, false, outputDirectory);
+        filter.setCompareFileIdentity(true);
+        filter.setDestinationIndex(new DirectorySnapshotIndex());
+        return filter;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.dependency.InvalidCrossDeviceLinkFallback;
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One {@link org.apache.maven.plugins.dependency.AbstractDependencyMojo#linkFile(File, File)} to a missing destination,
+ * as a hard link or through the symlink and copy fallbacks.
+ *
+ * @author marvin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LinkFileBenchmark {
+
+    @Param({ "hardlink", "symlink", "copy" })
+    public String mode;
+
+    @Param({ "4096", "1048576" })
+    public int size;
+
+    private File directory;
+
+    private File source;
+
+    private File target;
+
+    private BenchmarkMojo mojo;
+
+    @Setup(Level.Trial)
+    public void createSource()
+            throws IOException {
+        directory = BenchmarkArtifacts.createTempDirectory("link-file-benchmark");
+        source = new File(directory, "source.jar");
+        target = new File(directory, "output/target.jar");
+
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        Files.write(source.toPath(), content);
+    }
+
+    @Setup(Level.Invocation)
+    public void removeTarget()
+            throws IOException {
+        Files.deleteIfExists(target.toPath());
+        // a new mojo per link, nothing is remembered from the previous one
+        if ("symlink".equals(mode)) {
+            mojo = new BenchmarkMojo(InvalidCrossDeviceLinkFallback.symlink, true);
+        } else if ("copy".equals(mode)) {
+            mojo = new BenchmarkMojo(InvalidCrossDeviceLinkFallback.copy, true);
+        } else {
+            mojo = new BenchmarkMojo(InvalidCrossDeviceLinkFallback.warn_and_copy, false);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory()
+            throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void linkFile()
+            throws MojoExecutionException {
+        mojo.link(source, target);
+    }
+}
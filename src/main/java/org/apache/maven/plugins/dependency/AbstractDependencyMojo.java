@@ -36,17 +36,35 @@ package org.apache.maven.plugins.dependency;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.dependency.utils.DependencySilentLog;
+import org.apache.maven.plugins.dependency.utils.DirectorySnapshotIndex;
+import org.apache.maven.plugins.dependency.utils.ExecutionMetrics;
+import org.apache.maven.plugins.dependency.utils.OutputManifest;
+import org.apache.maven.plugins.dependency.utils.ParallelTaskExecutor;
+import org.apache.maven.plugins.dependency.utils.SessionScoped;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingRequest;
@@ -114,11 +132,85 @@ public abstract class AbstractDependencyMojo
     private boolean skip;
 
     /**
-     * Fallback action when it's not possible to create a hardlink
+     * Fallback action when it's not possible to create a hardlink: <code>log_only</code>, <code>copy</code>,
+     * <code>warn_and_copy</code>, <code>reflink_or_copy</code>, <code>symlink</code>,
+     * <code>warn_and_symlink</code> or <code>throw_error</code>.
      */
     @Parameter(property = "link.fallback", defaultValue = "warn_and_copy")
     private InvalidCrossDeviceLinkFallback fallbackAction;
 
+    /**
+     * Number of threads used to link artifacts concurrently. Defaults to the number of available processors, use
+     * <code>1</code> to link one artifact at a time.
+     */
+    @Parameter(property = "link.threads")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of hidden sibling clones of a source file that has reached the maximum number of hard links of its
+     * file system (65000 on ext4), links are then made against a clone instead of falling back to the
+     * <code>fallbackAction</code>. <code>0</code> to always fall back.
+     */
+    @Parameter(property = "link.maxLinkClones", defaultValue = "8")
+    private int maxLinkClones = 8;
+
+    /**
+     * Consider a destination that already is the same file as the artifact (same device and inode, as left by a
+     * previous link) up to date, whatever the overwrite settings are.
+     */
+    @Parameter(property = "link.checkFileIdentity", defaultValue = "true")
+    private boolean checkFileIdentity = true;
+
+    /**
+     * Keep a destination that has the same content as the artifact instead of relinking it, e.g. a jar of a reactor
+     * module rebuilt with identical bytes: its inode and last modified time are left untouched for image layer caches
+     * and file watchers. Digests the destinations the overwrite rules would replace, and the artifacts without a
+     * <code>.sha1</code> file.
+     */
+    @Parameter(property = "link.compareContent", defaultValue = "false")
+    private boolean compareContent;
+
+    /**
+     * Replace existing destinations atomically: the link is created under a temporary sibling name and renamed over
+     * the destination, so concurrent readers and writers never see a missing file.
+     */
+    @Parameter(property = "link.atomicReplace", defaultValue = "false")
+    private boolean atomicReplace;
+
+    /**
+     * File listing the paths produced by the last successful execution, used to find the stale links to prune. Empty
+     * to keep no manifest.
+     */
+    @Parameter(property = "link.manifestFile",
+            defaultValue = "${project.build.directory}/link-dependencies-maven-plugin/${mojoExecution.executionId}-${mojoExecution.goal}.manifest")
+    private File manifestFile;
+
+    /**
+     * Delete the paths produced by the previous execution that this execution no longer produces, e.g. the jars of
+     * removed dependencies or of previous versions. Only paths listed in the manifest are ever deleted.
+     */
+    @Parameter(property = "link.pruneStaleLinks", defaultValue = "false")
+    private boolean pruneStaleLinks;
+
+    /**
+     * JSON file receiving the counters and phase timings of the execution, e.g.
+     * <code>target/link-metrics.json</code>. Empty to only log the summary.
+     */
+    @Parameter(property = "link.metricsFile")
+    private File metricsFile;
+
+    private volatile ExecutionMetrics metrics = new ExecutionMetrics();
+
+    private final Set<File> outputs = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+
+    private HardLinkCapabilities hardLinkCapabilities;
+
+    private LinkCoordinator linkCoordinator;
+
+    private LinkCountPool linkCountPool;
+
+    private DirectorySnapshotIndex destinationIndex;
+
     // Mojo methods -----------------------------------------------------------
 
     /*
@@ -132,12 +224,30 @@ public abstract class AbstractDependencyMojo
             return;
         }
 
+        synchronized (this) {
+            destinationIndex = null;
+        }
+        outputs.clear();
+        metrics = new ExecutionMetrics();
         doExecute();
+        reportMetrics();
     }
 
     protected abstract void doExecute()
             throws MojoExecutionException, MojoFailureException;
 
+    private void reportMetrics()
+            throws MojoExecutionException {
+        getLog().info("Link metrics: " + metrics.getSummary());
+        if (metricsFile != null) {
+            try {
+                metrics.writeJson(metricsFile);
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Unable to write the metrics to " + metricsFile, e);
+            }
+        }
+    }
+
     /**
      * Does the actual link of the file and logging.
      *
@@ -147,8 +257,22 @@ public abstract class AbstractDependencyMojo
      */
     protected void linkFile(File artifact, File destFile)
             throws MojoExecutionException {
+        linkFile(artifact, destFile, getLog());
+    }
+
+    /**
+     * Does the actual link of the file and logging.
+     *
+     * @param artifact represents the file to link.
+     * @param destFile file name of destination file.
+     * @param log log to report to, concurrent links use a buffered log to keep the output ordered.
+     * @throws MojoExecutionException with a message if an error occurs.
+     */
+    protected void linkFile(File artifact, File destFile, Log log)
+            throws MojoExecutionException {
+        addOutput(destFile);
         try {
-            getLog().info("Linking "
+            log.info("Linking "
                     + (this.outputAbsoluteArtifactFilename ? artifact.getAbsolutePath() : artifact.getName()) + " to "
                     + destFile);
 
@@ -159,23 +283,241 @@ public abstract class AbstractDependencyMojo
                         + "link should be executed after packaging: see MDEP-187.");
             }
 
-            if (destFile.exists()) {
-                destFile.delete();
-            } else {
-                destFile.getParentFile().mkdirs();
+            final Path target = destFile.toPath();
+            final DirectorySnapshotIndex index = getDestinationIndex();
+            final LinkCoordinator coordinator = getLinkCoordinator();
+            LinkCoordinator.Claim claim = coordinator.claim(artifact, destFile, false);
+            if (claim == null) {
+                if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+                    log.debug(destFile + " already linked by another execution");
+                    metrics.increment(ExecutionMetrics.Counter.ALREADY_LINKED);
+                    index.added(destFile);
+                    return;
+                }
+                // removed since it was linked
+                claim = coordinator.claim(artifact, destFile, true);
             }
 
+            boolean linked = false;
             try {
-                // reverse order target, source
-                Files.createLink(destFile.toPath(), artifact.toPath());
-            } catch (final FileSystemException e) {
-                fallbackAction.fallback(getLog(), artifact.toPath(), destFile.toPath(), e);
+                link(log, artifact, destFile, index);
+                linked = true;
+            } finally {
+                claim.complete(linked);
             }
         } catch (final IOException e) {
             throw new MojoExecutionException("Error linking artifact from " + artifact + " to " + destFile, e);
         }
     }
 
+    private void link(Log log, File artifact, File destFile, DirectorySnapshotIndex index)
+            throws IOException {
+        final Path source = artifact.toPath();
+        final Path target = destFile.toPath();
+        if (atomicReplace) {
+            index.createDirectories(destFile.getParentFile());
+            final Path temporary = temporarySibling(target);
+            try {
+                link(log, source, temporary);
+                if (Files.exists(temporary, LinkOption.NOFOLLOW_LINKS)) {
+                    replace(temporary, target);
+                }
+            } finally {
+                // left behind by failures, or when the destination already was the same file
+                Files.deleteIfExists(temporary);
+                index.refresh(destFile);
+            }
+            return;
+        }
+
+        if (index.exists(destFile)) {
+            destFile.delete();
+            index.removed(destFile);
+        } else {
+            index.createDirectories(destFile.getParentFile());
+        }
+
+        boolean linked = false;
+        try {
+            linked = link(log, source, target);
+        } finally {
+            if (linked) {
+                index.added(destFile);
+            } else {
+                // the fallback may or may not have created the file
+                index.refresh(destFile);
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if a hard link was created, <code>false</code> if the fallback action was used.
+     */
+    private boolean link(Log log, Path source, Path target)
+            throws IOException {
+        final FileSystemException knownFailure = getHardLinkCapabilities().getFailure(source, target);
+        if (knownFailure != null) {
+            fallback(log, source, target, knownFailure);
+            return false;
+        }
+
+        final Path linkSource = maxLinkClones > 0 ? getLinkCountPool().getLinkSource(source) : source;
+        try {
+            createLink(target, linkSource);
+            metrics.increment(ExecutionMetrics.Counter.HARD_LINKS);
+            return true;
+        } catch (final FileSystemException e) {
+            // within a store, a file out of links is linked through a clone, anything else falls back
+            if (!getHardLinkCapabilities().recordFailure(source, target, e) && maxLinkClones > 0
+                    && getLinkCountPool().isLinkCountExhausted(linkSource, e)) {
+                try {
+                    if (getLinkCountPool().link(source, target, maxLinkClones, metrics,
+                            getHardLinkCapabilities())) {
+                        metrics.increment(ExecutionMetrics.Counter.HARD_LINKS);
+                        return true;
+                    }
+                    log.debug(source + " and its " + maxLinkClones
+                            + " clones have reached the maximum number of links");
+                } catch (final IOException cloneFailure) {
+                    log.debug("Unable to link " + source + " through a clone: " + cloneFailure.getMessage());
+                }
+            }
+            fallback(log, source, target, e);
+            return false;
+        }
+    }
+
+    /**
+     * Creates the link, replacing a target created since the destination directory snapshot was taken, by another
+     * module of the session for instance. An existing target is not a reason to fall back.
+     */
+    private static void createLink(Path target, Path existing)
+            throws IOException {
+        try {
+            // reverse order target, source
+            Files.createLink(target, existing);
+        } catch (final FileAlreadyExistsException e) {
+            Files.deleteIfExists(target);
+            try {
+                Files.createLink(target, existing);
+            } catch (final FileAlreadyExistsException again) {
+                throw new IOException(target + " keeps being recreated while linking it", again);
+            }
+        }
+    }
+
+    private void fallback(Log log, Path source, Path target, FileSystemException e)
+            throws IOException {
+        fallbackAction.fallback(log, source, target, e, getHardLinkCapabilities());
+
+        // classified by what the fallback action left, a stat on the slow path only
+        if (Files.isSymbolicLink(target)) {
+            metrics.increment(ExecutionMetrics.Counter.SYMLINKS);
+        } else if (Files.exists(target)) {
+            metrics.increment(ExecutionMetrics.Counter.COPIES);
+            metrics.add(ExecutionMetrics.Counter.BYTES_COPIED, Files.size(source));
+        } else {
+            metrics.increment(ExecutionMetrics.Counter.NOT_LINKED);
+        }
+    }
+
+    private static Path temporarySibling(Path target) {
+        return target.resolveSibling("." + target.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE) + ".tmp");
+    }
+
+    private static void replace(Path temporary, Path target)
+            throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Records a path produced by this execution. Linked files are recorded by {@link #linkFile(File, File, Log)},
+     * destinations left in place because they are up to date must be recorded by the goals. Kept destinations are
+     * registered with the {@link LinkCoordinator}, other executions of the session don't prune them.
+     *
+     * @param destFile a file this execution produced or kept.
+     */
+    protected void addOutput(File destFile) {
+        final File output = destFile.getAbsoluteFile();
+        if (outputs.add(output)) {
+            getLinkCoordinator().keep(output);
+        }
+    }
+
+    /**
+     * @return the files this execution produced or kept and that are still in place, sorted.
+     */
+    protected List<File> getOutputFiles() {
+        final List<File> files = new ArrayList<File>(outputs.size());
+        for (final File output : new TreeSet<File>(outputs)) {
+            if (output.isFile()) {
+                files.add(output);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Prunes the stale links if <code>pruneStaleLinks</code> is set and writes the manifest of this execution. Must
+     * be called once the execution has successfully produced all its paths.
+     *
+     * @throws MojoExecutionException if a stale link can't be deleted or the manifest can't be written.
+     */
+    protected void updateManifest()
+            throws MojoExecutionException {
+        if (manifestFile == null) {
+            return;
+        }
+
+        try {
+            if (pruneStaleLinks) {
+                try (ExecutionMetrics.Timer timer = metrics.start(ExecutionMetrics.Phase.PRUNING)) {
+                    final Set<File> stale = new LinkedHashSet<File>(OutputManifest.read(manifestFile));
+                    stale.removeAll(outputs);
+                    pruneStaleLinks(stale);
+                }
+            }
+            OutputManifest.write(manifestFile, outputs);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Unable to update the manifest " + manifestFile, e);
+        }
+    }
+
+    private void pruneStaleLinks(Set<File> stale)
+            throws MojoExecutionException {
+        final LinkCoordinator coordinator = getLinkCoordinator();
+        final List<ParallelTaskExecutor.Task<Void>> tasks = new ArrayList<ParallelTaskExecutor.Task<Void>>(
+                stale.size());
+        for (final File file : stale) {
+            if (coordinator.isClaimed(file)) {
+                // produced by another execution of this session sharing the destination
+                continue;
+            }
+            tasks.add(new ParallelTaskExecutor.Task<Void>() {
+                @Override
+                public Void execute(Log log)
+                        throws MojoExecutionException {
+                    final Path path = file.toPath();
+                    try {
+                        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS) && Files.deleteIfExists(path)) {
+                            log.info("Pruned stale " + file);
+                            metrics.increment(ExecutionMetrics.Counter.PRUNED);
+                        }
+                    } catch (final IOException e) {
+                        throw new MojoExecutionException("Unable to prune stale " + file, e);
+                    }
+                    return null;
+                }
+            });
+        }
+        newParallelTaskExecutor().execute(tasks);
+    }
+
     /**
      * @return Returns a new ProjectBuildingRequest populated from the current session and the current project remote
      *         repositories, used to resolve artifacts.
@@ -188,6 +530,78 @@ public abstract class AbstractDependencyMojo
         return buildingRequest;
     }
 
+    /**
+     * @return the hard link capabilities shared by all executions of the current session.
+     */
+    protected synchronized HardLinkCapabilities getHardLinkCapabilities() {
+        if (hardLinkCapabilities == null) {
+            hardLinkCapabilities = SessionScoped.get(session, HardLinkCapabilities.class,
+                    new SessionScoped.Factory<HardLinkCapabilities>() {
+                        @Override
+                        public HardLinkCapabilities create() {
+                            return new HardLinkCapabilities();
+                        }
+                    });
+        }
+        return hardLinkCapabilities;
+    }
+
+    /**
+     * @return the link coordinator shared by all executions of the current session.
+     */
+    protected synchronized LinkCoordinator getLinkCoordinator() {
+        if (linkCoordinator == null) {
+            linkCoordinator = SessionScoped.get(session, LinkCoordinator.class,
+                    new SessionScoped.Factory<LinkCoordinator>() {
+                        @Override
+                        public LinkCoordinator create() {
+                            return new LinkCoordinator();
+                        }
+                    });
+        }
+        return linkCoordinator;
+    }
+
+    /**
+     * @return the clones of the sources out of links, shared by all executions of the current session.
+     */
+    protected synchronized LinkCountPool getLinkCountPool() {
+        if (linkCountPool == null) {
+            linkCountPool = SessionScoped.get(session, LinkCountPool.class,
+                    new SessionScoped.Factory<LinkCountPool>() {
+                        @Override
+                        public LinkCountPool create() {
+                            return new LinkCountPool();
+                        }
+                    });
+        }
+        return linkCountPool;
+    }
+
+    /**
+     * @return the index of the destination directories for the current execution.
+     */
+    protected synchronized DirectorySnapshotIndex getDestinationIndex() {
+        if (destinationIndex == null) {
+            destinationIndex = new DirectorySnapshotIndex();
+        }
+        return destinationIndex;
+    }
+
+    /**
+     * @return the metrics of the current execution.
+     */
+    public ExecutionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return a new executor bounded by the configured number of threads.
+     */
+    protected ParallelTaskExecutor newParallelTaskExecutor() {
+        return new ParallelTaskExecutor(threads, getLog());
+    }
+
     /**
      * @return Returns the project.
      */
@@ -203,6 +617,78 @@ public abstract class AbstractDependencyMojo
         this.useJvmChmod = useJvmChmod;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public InvalidCrossDeviceLinkFallback getFallbackAction() {
+        return fallbackAction;
+    }
+
+    public void setFallbackAction(InvalidCrossDeviceLinkFallback fallbackAction) {
+        this.fallbackAction = fallbackAction;
+    }
+
+    public File getMetricsFile() {
+        return metricsFile;
+    }
+
+    public void setMetricsFile(File metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    public File getManifestFile() {
+        return manifestFile;
+    }
+
+    public void setManifestFile(File manifestFile) {
+        this.manifestFile = manifestFile;
+    }
+
+    public boolean isPruneStaleLinks() {
+        return pruneStaleLinks;
+    }
+
+    public void setPruneStaleLinks(boolean pruneStaleLinks) {
+        this.pruneStaleLinks = pruneStaleLinks;
+    }
+
+    public boolean isAtomicReplace() {
+        return atomicReplace;
+    }
+
+    public void setAtomicReplace(boolean atomicReplace) {
+        this.atomicReplace = atomicReplace;
+    }
+
+    public int getMaxLinkClones() {
+        return maxLinkClones;
+    }
+
+    public void setMaxLinkClones(int maxLinkClones) {
+        this.maxLinkClones = maxLinkClones;
+    }
+
+    public boolean isCompareContent() {
+        return compareContent;
+    }
+
+    public void setCompareContent(boolean compareContent) {
+        this.compareContent = compareContent;
+    }
+
+    public boolean isCheckFileIdentity() {
+        return checkFileIdentity;
+    }
+
+    public void setCheckFileIdentity(boolean checkFileIdentity) {
+        this.checkFileIdentity = checkFileIdentity;
+    }
+
     public boolean isSkip() {
         return skip;
     }
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Copy strategies used when a hard link can not be created.
+ *
+ * @author marvin
+ */
+final class FileCopies {
+
+    /**
+     * Bytes handed to a single {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} call.
+     */
+    static final long TRANSFER_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    private static final File NULL_FILE = new File("/dev/null");
+
+    private static volatile boolean reflinkAvailable = System.getProperty("os.name", "").toLowerCase(Locale.ENGLISH)
+            .contains("linux") && NULL_FILE.exists();
+
+    private FileCopies() {
+    }
+
+    /**
+     * Clones the source using a copy-on-write reflink (btrfs, XFS, ...) when the file system supports it, otherwise
+     * copies it with {@link #transfer(Path, Path)}.
+     *
+     * @param source file to copy.
+     * @param target file to create or replace.
+     * @param capabilities the stores a clone is attempted between.
+     * @return <code>true</code> if the target is a clone sharing the source blocks, <code>false</code> if the bytes
+     *         were copied.
+     * @throws IOException if the copy fails.
+     */
+    static boolean reflinkOrCopy(Path source, Path target, HardLinkCapabilities capabilities)
+            throws IOException {
+        if (reflink(source, target, capabilities)) {
+            return true;
+        }
+        transfer(source, target);
+        return false;
+    }
+
+    /**
+     * Copies the file with channel transfers, letting the kernel move the bytes without user space buffers, and keeps
+     * the source last modified time.
+     *
+     * @param source file to copy.
+     * @param target file to create or replace.
+     * @throws IOException if the copy fails or the source shrinks while being copied.
+     */
+    static void transfer(Path source, Path target)
+            throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = in.size();
+            long position = 0;
+            while (position < size) {
+                final long transferred = in.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), out);
+                if (transferred <= 0) {
+                    throw new IOException("Copied " + position + " of " + size + " bytes of " + source
+                            + " to " + target + ", the source was truncated");
+                }
+                position += transferred;
+            }
+        }
+        Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+    }
+
+    private static boolean reflink(Path source, Path target, HardLinkCapabilities capabilities) {
+        if (!reflinkAvailable || !capabilities.isReflinkPossible(source, target)) {
+            return false;
+        }
+
+        final Process process;
+        try {
+            process = new ProcessBuilder("cp", "--reflink=always", "--preserve=timestamps", "--",
+                    source.toString(), target.toString())
+                            .redirectErrorStream(true)
+                            .redirectOutput(NULL_FILE)
+                            .start();
+        } catch (final IOException e) {
+            // no usable cp on this machine
+            reflinkAvailable = false;
+            return false;
+        }
+
+        try {
+            if (process.waitFor() == 0) {
+                return true;
+            }
+        } catch (final InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+        }
+
+        capabilities.recordReflinkFailure(source, target);
+        return false;
+    }
+}
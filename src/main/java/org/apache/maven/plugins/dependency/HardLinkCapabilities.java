@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers between which file stores hard links can not be created. The first failing
+ * {@link Files#createLink(Path, Path)} between two different stores is kept, and every further link between the same
+ * stores goes straight to the {@link InvalidCrossDeviceLinkFallback} with a failure naming its own files and the
+ * recorded reason instead of failing again. Copy-on-write clones made by the fallback are tracked the same way: they
+ * are attempted once between two stores, btrfs subvolumes or bind mounts of one file system refuse hard links but
+ * accept clones, and no longer once one failed between these stores.
+ *
+ * @author marvin
+ */
+public class HardLinkCapabilities {
+
+    /**
+     * A link known to fail, stack traces would only point at this class.
+     */
+    private static final class KnownLinkFailure
+            extends FileSystemException {
+        private static final long serialVersionUID = 1L;
+
+        KnownLinkFailure(String source, String target, String reason) {
+            super(source, target, reason);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private final ConcurrentMap<Map.Entry<Object, Object>, String> failures = new ConcurrentHashMap<Map.Entry<Object, Object>, String>();
+
+    private final Set<Map.Entry<Object, Object>> reflinkFailures = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<Path, Object> directoryStores = new ConcurrentHashMap<Path, Object>();
+
+    /**
+     * @param source existing file to be linked.
+     * @param target link to be created.
+     * @return a failure of this link with the reason recorded for the stores of source and target,
+     *         <code>null</code> if a link should be attempted.
+     */
+    public FileSystemException getFailure(Path source, Path target) {
+        if (failures.isEmpty()) {
+            return null;
+        }
+
+        final String reason;
+        try {
+            reason = failures.get(key(source, target));
+        } catch (final IOException e) {
+            return null;
+        }
+        return reason == null ? null : new KnownLinkFailure(source.toString(), target.toString(), reason);
+    }
+
+    /**
+     * Records a failed link. Only failures between different stores are kept, anything else may be specific to the
+     * file being linked.
+     *
+     * @param source existing file that was linked.
+     * @param target link that could not be created.
+     * @param failure the link failure.
+     * @return <code>true</code> if links between these stores will no longer be attempted.
+     */
+    public boolean recordFailure(Path source, Path target, FileSystemException failure) {
+        try {
+            final Map.Entry<Object, Object> key = key(source, target);
+            if (key.getKey().equals(key.getValue())) {
+                return false;
+            }
+
+            failures.putIfAbsent(key, failure.getReason() != null ? failure.getReason() : failure.getMessage());
+            return true;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param source existing file to be cloned.
+     * @param target clone to be created.
+     * @return <code>true</code> if no clone failed between the stores of source and target.
+     */
+    public boolean isReflinkPossible(Path source, Path target) {
+        if (reflinkFailures.isEmpty()) {
+            return true;
+        }
+
+        try {
+            return !reflinkFailures.contains(key(source, target));
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records a failed copy-on-write clone, further clones between these stores are not attempted.
+     *
+     * @param source existing file that was cloned.
+     * @param target clone that could not be created.
+     */
+    public void recordReflinkFailure(Path source, Path target) {
+        try {
+            reflinkFailures.add(key(source, target));
+        } catch (final IOException e) {
+            // unknown store, isReflinkPossible says no anyway
+        }
+    }
+
+    private Map.Entry<Object, Object> key(Path source, Path target)
+            throws IOException {
+        final Path targetDirectory = target.toAbsolutePath().getParent();
+        Object targetStore = directoryStores.get(targetDirectory);
+        if (targetStore == null) {
+            targetStore = store(targetDirectory);
+            directoryStores.put(targetDirectory, targetStore);
+        }
+
+        return new SimpleImmutableEntry<Object, Object>(store(source), targetStore);
+    }
+
+    private static Object store(Path path)
+            throws IOException {
+        try {
+            // device id is a single stat, resolving the FileStore also scans the mount table
+            return Files.getAttribute(path, "unix:dev");
+        } catch (final UnsupportedOperationException | IllegalArgumentException e) {
+            return Files.getFileStore(path);
+        }
+    }
+}
@@ -51,6 +51,19 @@ public enum InvalidCrossDeviceLinkFallback {
             copy.fallback(log, source, target, e);
         }
     },
+    reflink_or_copy {
+        @Override
+        void fallback(Log log, Path source, Path target, FileSystemException e) throws IOException {
+            fallback(log, source, target, e, new HardLinkCapabilities());
+        }
+
+        @Override
+        void fallback(Log log, Path source, Path target, FileSystemException e, HardLinkCapabilities capabilities)
+                throws IOException {
+            // copy-on-write clone when the file system allows it, kernel side channel transfer otherwise
+            FileCopies.reflinkOrCopy(source, target, capabilities);
+        }
+    },
     symlink {
         @Override
         void fallback(Log log, Path source, Path target, FileSystemException e) throws IOException {
@@ -79,4 +92,12 @@ public enum InvalidCrossDeviceLinkFallback {
 
     abstract void fallback(Log log, Path source, Path target, FileSystemException e) throws IOException;
 
+    /**
+     * Falls back sharing what is known about the stores of the session.
+     */
+    void fallback(Log log, Path source, Path target, FileSystemException e, HardLinkCapabilities capabilities)
+            throws IOException {
+        fallback(log, source, target, e);
+    }
+
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency;
+
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Session scoped registry of the links done by all the executions of a reactor. Modules linking the same file to the
+ * same destination do it once: the first execution claims the destination, the others wait for it to complete and
+ * then skip the link. Destinations an execution kept in place are registered too, so that no execution of the session
+ * prunes them.
+ *
+ * @author marvin
+ */
+public class LinkCoordinator {
+
+    /**
+     * Exclusive right to link a source to a destination, must be completed by the owner.
+     */
+    public final class Claim {
+        private final String destination;
+
+        private final Link link;
+
+        private Claim(String destination, Link link) {
+            this.destination = destination;
+            this.link = link;
+        }
+
+        /**
+         * Releases the claim and wakes up the executions waiting for the same link.
+         *
+         * @param linked <code>true</code> if the destination was linked, <code>false</code> to let the next
+         *            execution try again.
+         */
+        public void complete(boolean linked) {
+            if (!linked) {
+                links.remove(destination, link);
+            }
+            link.done.complete(linked);
+        }
+    }
+
+    private static final class Link {
+        private final String source;
+
+        private final CompletableFuture<Boolean> done = new CompletableFuture<Boolean>();
+
+        Link(String source) {
+            this.source = source;
+        }
+    }
+
+    private final ConcurrentMap<String, Link> links = new ConcurrentHashMap<String, Link>();
+
+    private final Set<String> kept = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Claims a destination. Waits while another execution is linking the same destination.
+     *
+     * @param source the file to link, identified by path, size and last modified time.
+     * @param destination the link to create.
+     * @param force <code>true</code> to claim even if the same link was already done, e.g. because the destination
+     *            has been removed since.
+     * @return the claim, or <code>null</code> if the same source was already linked to the destination during this
+     *         session.
+     * @throws InterruptedIOException if interrupted while waiting.
+     */
+    public Claim claim(File source, File destination, boolean force)
+            throws InterruptedIOException {
+        final String destinationKey = destination.getAbsolutePath();
+        final String sourceKey = source.getAbsolutePath() + '|' + source.length() + '|' + source.lastModified();
+        for (;;) {
+            final Link mine = new Link(sourceKey);
+            final Link existing = links.putIfAbsent(destinationKey, mine);
+            if (existing == null) {
+                return new Claim(destinationKey, mine);
+            }
+
+            final boolean linked = await(existing);
+            if (linked && !force && existing.source.equals(sourceKey)) {
+                return null;
+            }
+            // a failed link, a different source or a forced relink: take over
+            if (links.replace(destinationKey, existing, mine)) {
+                return new Claim(destinationKey, mine);
+            }
+        }
+    }
+
+    /**
+     * Registers a destination an execution relies on without linking it, because it was already up to date.
+     *
+     * @param destination a destination kept in place.
+     */
+    public void keep(File destination) {
+        kept.add(destination.getAbsolutePath());
+    }
+
+    /**
+     * @param destination a link destination.
+     * @return <code>true</code> if an execution of this session linked, is linking or kept the destination.
+     */
+    public boolean isClaimed(File destination) {
+        final String destinationKey = destination.getAbsolutePath();
+        return links.containsKey(destinationKey) || kept.contains(destinationKey);
+    }
+
+    private static boolean await(Link link)
+            throws InterruptedIOException {
+        try {
+            return link.done.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a concurrent link");
+        } catch (final ExecutionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.maven.plugins.dependency.utils.ExecutionMetrics;
+
+/**
+ * Sibling clones of the source files that ran out of hard links. File systems cap the number of links of an inode
+ * (65000 on ext4), which a popular jar of a local repository shared by many workspaces can reach. The first link
+ * failing with <code>EMLINK</code> clones the source to a hidden sibling, <code>.name.link-clone-N</code>, a new inode
+ * with room for links, and further links are made against the clone until it is exhausted too. Clones left by other
+ * executions or processes are reused as long as they still match the source size and last modified time.
+ *
+ * @author marvin
+ */
+public class LinkCountPool {
+
+    private static final String CLONE_INFIX = ".link-clone-";
+
+    /**
+     * <code>strerror(EMLINK)</code> in the default locale.
+     */
+    private static final String EMLINK_REASON = "Too many links";
+
+    /**
+     * Maximum number of links of a file, by file store type.
+     */
+    private static final Map<String, Integer> LINK_LIMITS = new HashMap<String, Integer>();
+
+    static {
+        LINK_LIMITS.put("ext2", 32000);
+        LINK_LIMITS.put("ext3", 32000);
+        LINK_LIMITS.put("ext4", 65000);
+        LINK_LIMITS.put("btrfs", 65535);
+    }
+
+    private static final class Clones {
+        /**
+         * Index of the clone links are made against, <code>0</code> for the source itself.
+         */
+        private volatile int current;
+    }
+
+    private final ConcurrentMap<Path, Clones> pools = new ConcurrentHashMap<Path, Clones>();
+
+    /**
+     * Tells whether a link within a store failed because the file already has the maximum number of links
+     * (<code>EMLINK</code>). The exception only carries the <code>strerror</code> text, which is localized, so a
+     * file whose link count reached the limit of its file system is exhausted too. Other failures, such as a denied
+     * link to a file with many links, are not.
+     *
+     * @param file existing file a link to failed.
+     * @param e the link failure.
+     * @return <code>true</code> if the file can't take more links.
+     */
+    boolean isLinkCountExhausted(Path file, FileSystemException e) {
+        if (EMLINK_REASON.equals(e.getReason())) {
+            return true;
+        }
+
+        try {
+            final int limit = getLinkLimit(file);
+            return limit > 0 && getLinkCount(file) >= limit;
+        } catch (final IOException | UnsupportedOperationException | IllegalArgumentException failure) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of links of the file.
+     */
+    int getLinkCount(Path file)
+            throws IOException {
+        return ((Number) Files.getAttribute(file, "unix:nlink")).intValue();
+    }
+
+    /**
+     * @return the maximum number of links of a file on the store of the file, <code>0</code> if unknown.
+     */
+    int getLinkLimit(Path file)
+            throws IOException {
+        final Integer limit = LINK_LIMITS.get(Files.getFileStore(file).type());
+        return limit == null ? 0 : limit;
+    }
+
+    /**
+     * @param source existing file to be linked.
+     * @return the file links to the source should be made against: the source, or the clone in use once the source is
+     *         exhausted.
+     */
+    public Path getLinkSource(Path source) {
+        if (pools.isEmpty()) {
+            return source;
+        }
+
+        final Clones clones = pools.get(source.toAbsolutePath());
+        return clones == null || clones.current == 0 ? source : clonePath(source, clones.current);
+    }
+
+    /**
+     * Links the target to the first clone of the source with room for one more link, cloning the source when needed.
+     * Must be called once a link to {@link #getLinkSource(Path)} failed and
+     * {@link #isLinkCountExhausted(Path, FileSystemException)} holds. No clone is created when the directory of the
+     * source is not writable, a shared or read-only local repository for instance.
+     *
+     * @param source existing file to be linked.
+     * @param target link to be created.
+     * @param maxClones maximum number of clones of a source.
+     * @param metrics counts the created clones and the bytes copied into them.
+     * @param capabilities the stores a copy-on-write clone is attempted between.
+     * @return <code>true</code> if the target was linked, <code>false</code> if all the clones are exhausted or no
+     *         clone can be created.
+     * @throws IOException if a clone can't be created or the link fails for another reason.
+     */
+    public boolean link(Path source, Path target, int maxClones, ExecutionMetrics metrics,
+            HardLinkCapabilities capabilities)
+            throws IOException {
+        final Path key = source.toAbsolutePath();
+        Clones clones = pools.get(key);
+        if (clones == null) {
+            final Clones created = new Clones();
+            clones = pools.putIfAbsent(key, created);
+            if (clones == null) {
+                clones = created;
+            }
+        }
+
+        synchronized (clones) {
+            for (int i = Math.max(1, clones.current); i <= maxClones; i++) {
+                final Path clone = clonePath(source, i);
+                if (!isClone(source, clone)) {
+                    if (!isCloneable(source)) {
+                        return false;
+                    }
+                    createClone(source, clone, metrics, capabilities);
+                    metrics.increment(ExecutionMetrics.Counter.LINK_CLONES);
+                }
+                try {
+                    createLink(target, clone);
+                    clones.current = i;
+                    return true;
+                } catch (final FileSystemException e) {
+                    if (!isLinkCountExhausted(clone, e)) {
+                        throw e;
+                    }
+                }
+            }
+            clones.current = Math.max(clones.current, maxClones);
+            return false;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if clones can be created next to the source.
+     */
+    boolean isCloneable(Path source) {
+        return Files.isWritable(source.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Creates the link, reverse order target, source like {@link Files#createLink(Path, Path)}.
+     */
+    void createLink(Path target, Path existing)
+            throws IOException {
+        Files.createLink(target, existing);
+    }
+
+    static Path clonePath(Path source, int index) {
+        return source.resolveSibling("." + source.getFileName() + CLONE_INFIX + index);
+    }
+
+    private static boolean isClone(Path source, Path clone)
+            throws IOException {
+        return Files.isRegularFile(clone) && Files.size(clone) == Files.size(source)
+                && Files.getLastModifiedTime(clone).equals(Files.getLastModifiedTime(source));
+    }
+
+    private static void createClone(Path source, Path clone, ExecutionMetrics metrics,
+            HardLinkCapabilities capabilities)
+            throws IOException {
+        // concurrent processes may create the same clone, the last one wins and both are valid
+        final Path temporary = clone.resolveSibling(clone.getFileName() + "."
+                + Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE) + ".tmp");
+        try {
+            if (!FileCopies.reflinkOrCopy(source, temporary, capabilities)) {
+                metrics.add(ExecutionMetrics.Counter.BYTES_COPIED, Files.size(temporary));
+            }
+            try {
+                Files.move(temporary, clone, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary, clone, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.fromConfiguration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.model.Dependency;
+
+/**
+ * Versions of the dependencies of a project, indexed once so that each versionless artifact item is looked up in
+ * constant time. An exact match on groupId, artifactId, classifier and type in the dependencies is preferred, then in
+ * the dependency management, then a match on groupId and artifactId only in the same order. Within a list the first
+ * matching dependency wins.
+ *
+ * @author marvin
+ */
+class DependencyVersionIndex {
+
+    private final Map<List<String>, String> strictDependencies = new HashMap<List<String>, String>();
+
+    private final Map<List<String>, String> strictManaged = new HashMap<List<String>, String>();
+
+    private final Map<List<String>, String> looseDependencies = new HashMap<List<String>, String>();
+
+    private final Map<List<String>, String> looseManaged = new HashMap<List<String>, String>();
+
+    /**
+     * @param dependencies the project dependencies.
+     * @param managedDependencies the managed dependencies, <code>null</code> if the project has no dependency
+     *            management.
+     */
+    DependencyVersionIndex(List<Dependency> dependencies, List<Dependency> managedDependencies) {
+        index(dependencies, strictDependencies, looseDependencies);
+        if (managedDependencies != null) {
+            index(managedDependencies, strictManaged, looseManaged);
+        }
+    }
+
+    /**
+     * @param item a versionless artifact item.
+     * @return the version of the best matching dependency, <code>null</code> if none matches.
+     */
+    String findVersion(ArtifactItem item) {
+        final List<String> strict = strictKey(item.getGroupId(), item.getArtifactId(), item.getClassifier(),
+                item.getType());
+        final List<String> loose = looseKey(item.getGroupId(), item.getArtifactId());
+        if (strictDependencies.containsKey(strict)) {
+            return strictDependencies.get(strict);
+        }
+        if (strictManaged.containsKey(strict)) {
+            return strictManaged.get(strict);
+        }
+        if (looseDependencies.containsKey(loose)) {
+            return looseDependencies.get(loose);
+        }
+        // null when the item is unknown
+        return looseManaged.get(loose);
+    }
+
+    private static void index(List<Dependency> dependencies, Map<List<String>, String> strict,
+            Map<List<String>, String> loose) {
+        for (final Dependency dependency : dependencies) {
+            final List<String> strictKey = strictKey(dependency.getGroupId(), dependency.getArtifactId(),
+                    dependency.getClassifier(), dependency.getType());
+            if (!strict.containsKey(strictKey)) {
+                strict.put(strictKey, dependency.getVersion());
+            }
+            final List<String> looseKey = looseKey(dependency.getGroupId(), dependency.getArtifactId());
+            if (!loose.containsKey(looseKey)) {
+                loose.put(looseKey, dependency.getVersion());
+            }
+        }
+    }
+
+    // list keys keep null and empty values apart, as the former field by field comparison did
+    private static List<String> strictKey(String groupId, String artifactId, String classifier, String type) {
+        return Arrays.asList(groupId, artifactId, classifier, type);
+    }
+
+    private static List<String> looseKey(String groupId, String artifactId) {
+        return Arrays.asList(groupId, artifactId);
+    }
+}
@@ -16,9 +16,10 @@
 package org.apache.maven.plugins.dependency.fromConfiguration;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.artifact.handler.ArtifactHandler;
 import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
-import org.apache.maven.model.Dependency;
 
 /*
  * Licensed to the Apache Software Foundation (ASF) under one
@@ -41,13 +42,17 @@ import org.apache.maven.model.Dependency;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.*;
 import org.apache.maven.plugins.dependency.AbstractDependencyMojo;
 import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.apache.maven.plugins.dependency.utils.ExecutionMetrics;
+import org.apache.maven.plugins.dependency.utils.ParallelTaskExecutor;
 import org.apache.maven.plugins.dependency.utils.filters.ArtifactItemFilter;
 import org.apache.maven.plugins.dependency.utils.filters.DestFileFilter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.shared.artifact.ArtifactCoordinate;
 import org.apache.maven.shared.artifact.DefaultArtifactCoordinate;
 import org.apache.maven.shared.artifact.filter.collection.ArtifactFilterException;
 import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
@@ -55,9 +60,18 @@ import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
 import org.apache.maven.shared.repository.RepositoryManager;
 import org.codehaus.plexus.util.StringUtils;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Goal that links a list of artifacts from the repository to defined locations.
@@ -108,6 +122,14 @@ public class LinkMojo
     @Parameter
     private File localRepositoryDirectory;
 
+    /**
+     * Look release artifacts up in the local repository before resolving them: an item whose destination is up to
+     * date with the local file is not resolved at all. Like an offline build, this trusts the local file even if it
+     * was downloaded from a repository the project no longer uses.
+     */
+    @Parameter(property = "link.checkLocalRepositoryFirst", defaultValue = "true")
+    private boolean checkLocalRepositoryFirst = true;
+
     @Component
     private ArtifactResolver artifactResolver;
 
@@ -142,7 +164,7 @@ public class LinkMojo
     private boolean useBaseVersion = false;
 
     /**
-     * The artifact to link from command line. A string of the form
+     * The artifacts to link from command line. A comma separated list of strings of the form
      * groupId:artifactId:version[:packaging[:classifier]]. Use {@link #artifactItems} within the
      * POM configuration.
      */
@@ -150,6 +172,14 @@ public class LinkMojo
     @Parameter(property = "artifact")
     private String artifact;
 
+    /**
+     * File listing more artifacts to link, one groupId:artifactId:version[:packaging[:classifier]]
+     * per line. Blank lines and lines starting with <code>#</code> are ignored. The artifacts are
+     * added to the {@link #artifactItems} and linked in the same execution.
+     */
+    @Parameter(property = "artifactsFile")
+    private File artifactsFile;
+
     /**
      * <i>not used in this goal</i>
      */
@@ -162,11 +192,11 @@ public class LinkMojo
     @Parameter
     protected boolean ignorePermissions;
 
-    // artifactItems is filled by either field injection or by setArtifact()
+    // artifactItems is filled by either field injection, by setArtifact() or from the artifactsFile
     protected void verifyRequirements()
             throws MojoFailureException {
         if (artifactItems == null || artifactItems.isEmpty()) {
-            throw new MojoFailureException("Either artifact or artifactItems is required ");
+            throw new MojoFailureException("Either artifact, artifactsFile or artifactItems is required ");
         }
     }
 
@@ -192,40 +222,84 @@ public class LinkMojo
             throw new MojoExecutionException("There are no artifactItems configured.");
         }
 
+        final Set<File> outputDirectories = new HashSet<File>();
+        DependencyVersionIndex versionIndex = null;
         for (final ArtifactItem artifactItem : artifactItems) {
             this.getLog().info("Configured Artifact: " + artifactItem.toString());
 
             if (artifactItem.getOutputDirectory() == null) {
                 artifactItem.setOutputDirectory(this.outputDirectory);
             }
-            artifactItem.getOutputDirectory().mkdirs();
+            if (outputDirectories.add(artifactItem.getOutputDirectory())) {
+                artifactItem.getOutputDirectory().mkdirs();
+            }
 
             // make sure we have a version.
             if (StringUtils.isEmpty(artifactItem.getVersion())) {
-                fillMissingArtifactVersion(artifactItem);
-            }
-
-            artifactItem.setArtifact(this.getArtifact(artifactItem));
-
-            if (StringUtils.isEmpty(artifactItem.getDestFileName())) {
-                artifactItem.setDestFileName(DependencyUtil.getFormattedFileName(artifactItem.getArtifact(),
-                        removeVersion, prependGroupId,
-                        useBaseVersion, removeClassifier));
+                if (versionIndex == null) {
+                    versionIndex = newDependencyVersionIndex();
+                }
+                fillMissingArtifactVersion(artifactItem, versionIndex);
             }
+        }
 
-            try {
-                artifactItem.setNeedsProcessing(checkIfProcessingNeeded(artifactItem));
-            } catch (final ArtifactFilterException e) {
-                throw new MojoExecutionException(e.getMessage(), e);
-            }
+        // resolved concurrently, failures reported in configuration order
+        final ProjectBuildingRequest buildingRequest = newArtifactItemBuildingRequest();
+        final File localRepository = isCompareContent()
+                ? repositoryManager.getLocalRepositoryBasedir(buildingRequest) : null;
+        final List<ParallelTaskExecutor.Task<Void>> tasks = new ArrayList<ParallelTaskExecutor.Task<Void>>(
+                artifactItems.size());
+        for (final ArtifactItem artifactItem : artifactItems) {
+            tasks.add(new ParallelTaskExecutor.Task<Void>() {
+                @Override
+                public Void execute(Log log)
+                        throws MojoExecutionException {
+                    // an up to date destination of an artifact already in the local repository needs no resolution
+                    final Artifact localArtifact = checkLocalRepositoryFirst
+                            ? getLocalArtifact(artifactItem, buildingRequest) : null;
+                    if (localArtifact != null) {
+                        artifactItem.setArtifact(localArtifact);
+                        setDestFileName(artifactItem);
+                        if (!isProcessingNeeded(artifactItem)) {
+                            artifactItem.setNeedsProcessing(false);
+                            return null;
+                        }
+                    }
+
+                    artifactItem.setArtifact(getArtifact(artifactItem, buildingRequest));
+                    setDestFileName(artifactItem);
+                    artifactItem.setNeedsProcessing(isProcessingNeeded(artifactItem));
+                    return null;
+                }
+
+                private void setDestFileName(ArtifactItem artifactItem) {
+                    if (StringUtils.isEmpty(artifactItem.getDestFileName())) {
+                        artifactItem.setDestFileName(DependencyUtil.getFormattedFileName(artifactItem.getArtifact(),
+                                removeVersion, prependGroupId,
+                                useBaseVersion, removeClassifier));
+                    }
+                }
+
+                private boolean isProcessingNeeded(ArtifactItem artifactItem)
+                        throws MojoExecutionException {
+                    try {
+                        return checkIfProcessingNeeded(artifactItem, localRepository);
+                    } catch (final ArtifactFilterException e) {
+                        throw new MojoExecutionException(e.getMessage(), e);
+                    }
+                }
+            });
+        }
+        try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.RESOLUTION)) {
+            newParallelTaskExecutor().execute(tasks);
         }
         return artifactItems;
     }
 
-    private boolean checkIfProcessingNeeded(ArtifactItem item)
+    private boolean checkIfProcessingNeeded(ArtifactItem item, File localRepository)
             throws MojoExecutionException, ArtifactFilterException {
         return StringUtils.equalsIgnoreCase(item.getOverWrite(), "true")
-                || getMarkedArtifactFilter(item).isArtifactIncluded(item);
+                || getMarkedArtifactFilter(item, localRepository).isArtifactIncluded(item);
     }
 
     /**
@@ -240,6 +314,88 @@ public class LinkMojo
      */
     protected Artifact getArtifact(ArtifactItem artifactItem)
             throws MojoExecutionException {
+        try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.RESOLUTION)) {
+            return getArtifact(artifactItem, newArtifactItemBuildingRequest());
+        }
+    }
+
+    /**
+     * @return the building request the artifact items are resolved with, using the
+     *         <code>localRepositoryDirectory</code> if set.
+     */
+    private ProjectBuildingRequest newArtifactItemBuildingRequest() {
+        final ProjectBuildingRequest buildingRequest = newResolveArtifactProjectBuildingRequest();
+        if (localRepositoryDirectory != null) {
+            return repositoryManager.setLocalRepositoryBasedir(buildingRequest, localRepositoryDirectory);
+        }
+        return buildingRequest;
+    }
+
+    /**
+     * Finds the artifact of an item in the local repository without the resolver. Only release versions are looked
+     * up, snapshots, ranges and <code>LATEST</code>/<code>RELEASE</code> may resolve to something else, and so are
+     * the modules of the reactor, resolved from their build output.
+     *
+     * @param artifactItem containing information about artifact from plugin configuration.
+     * @param buildingRequest the request the item would be resolved with.
+     * @return the artifact, <code>null</code> if it must be resolved.
+     */
+    private Artifact getLocalArtifact(ArtifactItem artifactItem, ProjectBuildingRequest buildingRequest) {
+        final String version = artifactItem.getVersion();
+        if (ArtifactUtils.isSnapshot(version) || version.startsWith("[") || version.startsWith("(")
+                || Artifact.LATEST_VERSION.equals(version) || Artifact.RELEASE_VERSION.equals(version)
+                || isReactorProject(artifactItem)) {
+            return null;
+        }
+
+        final File file = new File(repositoryManager.getLocalRepositoryBasedir(buildingRequest),
+                repositoryManager.getPathForLocalArtifact(buildingRequest, toArtifactCoordinate(artifactItem)));
+        if (!file.isFile()) {
+            return null;
+        }
+
+        final Artifact artifact = new DefaultArtifact(artifactItem.getGroupId(), artifactItem.getArtifactId(),
+                version, null, artifactItem.getType(), artifactItem.getClassifier(),
+                artifactHandlerManager.getArtifactHandler(artifactItem.getType()));
+        artifact.setFile(file);
+        artifact.setResolved(true);
+        return artifact;
+    }
+
+    private boolean isReactorProject(ArtifactItem artifactItem) {
+        if (reactorProjects != null) {
+            for (final MavenProject reactorProject : reactorProjects) {
+                if (StringUtils.equals(reactorProject.getArtifactId(), artifactItem.getArtifactId())
+                        && StringUtils.equals(reactorProject.getGroupId(), artifactItem.getGroupId())
+                        && StringUtils.equals(reactorProject.getVersion(), artifactItem.getVersion())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private ArtifactCoordinate toArtifactCoordinate(ArtifactItem artifactItem) {
+        // Map dependency to artifact coordinate
+        final DefaultArtifactCoordinate coordinate = new DefaultArtifactCoordinate();
+        coordinate.setGroupId(artifactItem.getGroupId());
+        coordinate.setArtifactId(artifactItem.getArtifactId());
+        coordinate.setVersion(artifactItem.getVersion());
+        coordinate.setClassifier(artifactItem.getClassifier());
+
+        final String extension;
+        final ArtifactHandler artifactHandler = artifactHandlerManager.getArtifactHandler(artifactItem.getType());
+        if (artifactHandler != null) {
+            extension = artifactHandler.getExtension();
+        } else {
+            extension = artifactItem.getType();
+        }
+        coordinate.setExtension(extension);
+        return coordinate;
+    }
+
+    private Artifact getArtifact(ArtifactItem artifactItem, ProjectBuildingRequest buildingRequest)
+            throws MojoExecutionException {
         Artifact artifact;
 
         try {
@@ -254,30 +410,9 @@ public class LinkMojo
              * artifact = node.getArtifact(); }
              */
 
-            ProjectBuildingRequest buildingRequest = newResolveArtifactProjectBuildingRequest();
-
-            if (localRepositoryDirectory != null) {
-                buildingRequest = repositoryManager.setLocalRepositoryBasedir(buildingRequest,
-                        localRepositoryDirectory);
-            }
-
-            // Map dependency to artifact coordinate
-            final DefaultArtifactCoordinate coordinate = new DefaultArtifactCoordinate();
-            coordinate.setGroupId(artifactItem.getGroupId());
-            coordinate.setArtifactId(artifactItem.getArtifactId());
-            coordinate.setVersion(artifactItem.getVersion());
-            coordinate.setClassifier(artifactItem.getClassifier());
-
-            final String extension;
-            final ArtifactHandler artifactHandler = artifactHandlerManager.getArtifactHandler(artifactItem.getType());
-            if (artifactHandler != null) {
-                extension = artifactHandler.getExtension();
-            } else {
-                extension = artifactItem.getType();
-            }
-            coordinate.setExtension(extension);
-
-            artifact = artifactResolver.resolveArtifact(buildingRequest, coordinate).getArtifact();
+            getMetrics().increment(ExecutionMetrics.Counter.RESOLVER_CALLS);
+            artifact = artifactResolver.resolveArtifact(buildingRequest, toArtifactCoordinate(artifactItem))
+                    .getArtifact();
         } catch (final ArtifactResolverException e) {
             throw new MojoExecutionException("Unable to find/resolve artifact.", e);
         }
@@ -292,46 +427,24 @@ public class LinkMojo
      * for artifactId and groupId only.
      *
      * @param artifact representing configured file.
+     * @param index versions of the project dependencies.
      * @throws MojoExecutionException
      */
-    private void fillMissingArtifactVersion(ArtifactItem artifact)
+    private void fillMissingArtifactVersion(ArtifactItem artifact, DependencyVersionIndex index)
             throws MojoExecutionException {
-        final MavenProject project = getProject();
-        final List<Dependency> deps = project.getDependencies();
-        final List<Dependency> depMngt = project.getDependencyManagement() == null ? Collections.<Dependency> emptyList()
-                : project.getDependencyManagement().getDependencies();
-
-        if (!findDependencyVersion(artifact, deps, false)
-                && (project.getDependencyManagement() == null || !findDependencyVersion(artifact, depMngt, false))
-                && !findDependencyVersion(artifact, deps, true)
-                && (project.getDependencyManagement() == null || !findDependencyVersion(artifact, depMngt, true))) {
+        final String version = index.findVersion(artifact);
+        if (version == null) {
             throw new MojoExecutionException("Unable to find artifact version of " + artifact.getGroupId() + ":"
                     + artifact.getArtifactId() + " in either dependency list or in project's dependency management.");
         }
+        artifact.setVersion(version);
     }
 
-    /**
-     * Tries to find missing version from a list of dependencies. If found, the artifact is updated
-     * with the correct version.
-     *
-     * @param artifact representing configured file.
-     * @param dependencies list of dependencies to search.
-     * @param looseMatch only look at artifactId and groupId
-     * @return the found dependency
-     */
-    private boolean findDependencyVersion(ArtifactItem artifact, List<Dependency> dependencies, boolean looseMatch) {
-        for (final Dependency dependency : dependencies) {
-            if (StringUtils.equals(dependency.getArtifactId(), artifact.getArtifactId())
-                    && StringUtils.equals(dependency.getGroupId(), artifact.getGroupId())
-                    && (looseMatch || StringUtils.equals(dependency.getClassifier(), artifact.getClassifier()))
-                    && (looseMatch || StringUtils.equals(dependency.getType(), artifact.getType()))) {
-                artifact.setVersion(dependency.getVersion());
-
-                return true;
-            }
-        }
-
-        return false;
+    private DependencyVersionIndex newDependencyVersionIndex() {
+        final MavenProject project = getProject();
+        return new DependencyVersionIndex(project.getDependencies(),
+                project.getDependencyManagement() == null ? null
+                        : project.getDependencyManagement().getDependencies());
     }
 
     /**
@@ -404,6 +517,14 @@ public class LinkMojo
         this.overWriteSnapshots = theOverWriteSnapshots;
     }
 
+    public boolean isCheckLocalRepositoryFirst() {
+        return checkLocalRepositoryFirst;
+    }
+
+    public void setCheckLocalRepositoryFirst(boolean checkLocalRepositoryFirst) {
+        this.checkLocalRepositoryFirst = checkLocalRepositoryFirst;
+    }
+
     public void setLocalRepositoryDirectory(File localRepositoryDirectory) {
         this.localRepositoryDirectory = localRepositoryDirectory;
     }
@@ -411,34 +532,81 @@ public class LinkMojo
     public void setArtifact(String artifact)
             throws MojoFailureException {
         if (artifact != null) {
-            String packaging = "jar";
-            String classifier;
-            final String[] tokens = StringUtils.split(artifact, ":");
-            if (tokens.length < 3 || tokens.length > 5) {
-                throw new MojoFailureException("Invalid artifact, "
-                        + "you must specify groupId:artifactId:version[:packaging[:classifier]] " + artifact);
-            }
-            final String groupId = tokens[0];
-            final String artifactId = tokens[1];
-            final String version = tokens[2];
-            if (tokens.length >= 4) {
-                packaging = tokens[3];
-            }
-            if (tokens.length == 5) {
-                classifier = tokens[4];
-            } else {
-                classifier = null;
+            final List<ArtifactItem> items = new ArrayList<ArtifactItem>();
+            for (final String coordinate : StringUtils.split(artifact, ",")) {
+                if (StringUtils.isNotBlank(coordinate)) {
+                    items.add(parseArtifact(coordinate.trim()));
+                }
             }
+            setArtifactItems(items);
+        }
+    }
+
+    public File getArtifactsFile() {
+        return artifactsFile;
+    }
 
-            final ArtifactItem artifactItem = new ArtifactItem();
-            artifactItem.setGroupId(groupId);
-            artifactItem.setArtifactId(artifactId);
-            artifactItem.setVersion(version);
-            artifactItem.setType(packaging);
-            artifactItem.setClassifier(classifier);
+    public void setArtifactsFile(File artifactsFile) {
+        this.artifactsFile = artifactsFile;
+    }
 
-            setArtifactItems(Collections.singletonList(artifactItem));
+    private static ArtifactItem parseArtifact(String artifact)
+            throws MojoFailureException {
+        String packaging = "jar";
+        String classifier;
+        final String[] tokens = StringUtils.split(artifact, ":");
+        if (tokens.length < 3 || tokens.length > 5) {
+            throw new MojoFailureException("Invalid artifact, "
+                    + "you must specify groupId:artifactId:version[:packaging[:classifier]] " + artifact);
+        }
+        final String groupId = tokens[0];
+        final String artifactId = tokens[1];
+        final String version = tokens[2];
+        if (tokens.length >= 4) {
+            packaging = tokens[3];
         }
+        if (tokens.length == 5) {
+            classifier = tokens[4];
+        } else {
+            classifier = null;
+        }
+
+        final ArtifactItem artifactItem = new ArtifactItem();
+        artifactItem.setGroupId(groupId);
+        artifactItem.setArtifactId(artifactId);
+        artifactItem.setVersion(version);
+        artifactItem.setType(packaging);
+        artifactItem.setClassifier(classifier);
+        return artifactItem;
+    }
+
+    /**
+     * Appends the artifacts listed in <code>artifactsFile</code> to the artifact items.
+     *
+     * @throws MojoFailureException if the file can't be read or has an invalid line.
+     */
+    private void readArtifactsFile()
+            throws MojoFailureException {
+        final List<ArtifactItem> items = artifactItems == null ? new ArrayList<ArtifactItem>()
+                : new ArrayList<ArtifactItem>(artifactItems);
+        try (BufferedReader reader = Files.newBufferedReader(artifactsFile.toPath(), StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    items.add(parseArtifact(line));
+                } catch (final MojoFailureException e) {
+                    throw new MojoFailureException(artifactsFile + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (final IOException e) {
+            throw new MojoFailureException("Unable to read " + artifactsFile, e);
+        }
+        setArtifactItems(items);
     }
 
     /**
@@ -453,18 +621,53 @@ public class LinkMojo
     @Override
     protected void doExecute()
             throws MojoExecutionException, MojoFailureException {
+        if (artifactsFile != null) {
+            readArtifactsFile();
+        }
         verifyRequirements();
 
         final List<ArtifactItem> theArtifactItems = getProcessedArtifactItems(
                 new ProcessArtifactItemsRequest(stripVersion, prependGroupId, useBaseVersion,
                         stripClassifier));
+        getMetrics().add(ExecutionMetrics.Counter.ARTIFACTS_CONSIDERED, theArtifactItems.size());
+
+        // items sharing a destination are linked by the same task, in configuration order
+        final Map<File, List<ArtifactItem>> itemsByDestination = new LinkedHashMap<File, List<ArtifactItem>>();
         for (final ArtifactItem artifactItem : theArtifactItems) {
-            if (artifactItem.isNeedsProcessing()) {
-                linkArtifact(artifactItem);
-            } else {
-                this.getLog().info(artifactItem + " already exists in " + artifactItem.getOutputDirectory());
+            final File destFile = new File(artifactItem.getOutputDirectory(), artifactItem.getDestFileName())
+                    .getAbsoluteFile();
+            List<ArtifactItem> sameDestination = itemsByDestination.get(destFile);
+            if (sameDestination == null) {
+                sameDestination = new ArrayList<ArtifactItem>(1);
+                itemsByDestination.put(destFile, sameDestination);
             }
+            sameDestination.add(artifactItem);
+        }
+
+        final List<ParallelTaskExecutor.Task<Void>> tasks = new ArrayList<ParallelTaskExecutor.Task<Void>>(
+                itemsByDestination.size());
+        for (final List<ArtifactItem> sameDestination : itemsByDestination.values()) {
+            tasks.add(new ParallelTaskExecutor.Task<Void>() {
+                @Override
+                public Void execute(Log log)
+                        throws MojoExecutionException {
+                    for (final ArtifactItem artifactItem : sameDestination) {
+                        if (artifactItem.isNeedsProcessing()) {
+                            linkArtifact(artifactItem, log);
+                        } else {
+                            log.info(artifactItem + " already exists in " + artifactItem.getOutputDirectory());
+                            getMetrics().increment(ExecutionMetrics.Counter.ARTIFACTS_SKIPPED);
+                            addOutput(new File(artifactItem.getOutputDirectory(), artifactItem.getDestFileName()));
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.LINKING)) {
+            newParallelTaskExecutor().execute(tasks);
         }
+        updateManifest();
     }
 
     /**
@@ -476,16 +679,41 @@ public class LinkMojo
      */
     protected void linkArtifact(ArtifactItem artifactItem)
             throws MojoExecutionException {
+        linkArtifact(artifactItem, getLog());
+    }
+
+    /**
+     * Links the resolved artifact to its destination.
+     *
+     * @param artifactItem containing the information about the Artifact to link.
+     * @param log log to report to.
+     * @throws MojoExecutionException with a message if an error occurs.
+     * @see #linkFile(File, File, Log)
+     */
+    protected void linkArtifact(ArtifactItem artifactItem, Log log)
+            throws MojoExecutionException {
         final File destFile = new File(artifactItem.getOutputDirectory(), artifactItem.getDestFileName());
 
-        linkFile(artifactItem.getArtifact().getFile(), destFile);
+        linkFile(artifactItem.getArtifact().getFile(), destFile, log);
     }
 
-    protected ArtifactItemFilter getMarkedArtifactFilter(ArtifactItem item) {
-        final ArtifactItemFilter destinationNameOverrideFilter = new DestFileFilter(this.isOverWriteReleases(),
+    /**
+     * @param item the artifact item to filter.
+     * @param localRepository base directory of the local repository the items are resolved into, only used when
+     *            comparing content.
+     * @return the filter excluding items whose destination is up to date.
+     */
+    protected ArtifactItemFilter getMarkedArtifactFilter(ArtifactItem item, File localRepository) {
+        final DestFileFilter destinationNameOverrideFilter = new DestFileFilter(this.isOverWriteReleases(),
                 this.isOverWriteSnapshots(), this.isOverWriteIfNewer(),
                 false, false, false, false, this.stripVersion, prependGroupId, useBaseVersion,
                 item.getOutputDirectory());
+        destinationNameOverrideFilter.setCompareFileIdentity(isCheckFileIdentity());
+        destinationNameOverrideFilter.setCompareContent(isCompareContent());
+        if (isCompareContent()) {
+            destinationNameOverrideFilter.setLocalRepositoryDirectory(localRepository);
+        }
+        destinationNameOverrideFilter.setDestinationIndex(getDestinationIndex());
         return destinationNameOverrideFilter;
     }
 
@@ -35,12 +35,26 @@ package org.apache.maven.plugins.dependency.fromDependencies;
  */
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
 import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.dependency.AbstractDependencyMojo;
 import org.apache.maven.plugins.dependency.utils.DependencyStatusSets;
 import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.apache.maven.plugins.dependency.utils.ExecutionFingerprint;
+import org.apache.maven.plugins.dependency.utils.ExecutionMetrics;
+import org.apache.maven.plugins.dependency.utils.LinkPlan;
+import org.apache.maven.plugins.dependency.utils.LocalRepositoryMetadataWriter;
+import org.apache.maven.plugins.dependency.utils.ParallelTaskExecutor;
+import org.apache.maven.plugins.dependency.utils.ParentChainCache;
+import org.apache.maven.plugins.dependency.utils.ParentPomReader;
+import org.apache.maven.plugins.dependency.utils.PomResolutionCache;
+import org.apache.maven.plugins.dependency.utils.SessionScoped;
+import org.apache.maven.plugins.dependency.utils.StreamingPipeline;
+import org.apache.maven.plugins.dependency.utils.filters.CompiledArtifactFilter;
 import org.apache.maven.plugins.dependency.utils.filters.DestFileFilter;
 import org.apache.maven.plugins.dependency.utils.translators.ArtifactTranslator;
 import org.apache.maven.plugins.dependency.utils.translators.ClassifierTypeTranslator;
@@ -53,8 +67,6 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.shared.artifact.ArtifactCoordinate;
 import org.apache.maven.shared.artifact.DefaultArtifactCoordinate;
 import org.apache.maven.shared.artifact.filter.collection.*;
-import org.apache.maven.shared.artifact.install.ArtifactInstaller;
-import org.apache.maven.shared.artifact.install.ArtifactInstallerException;
 import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
 import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
 import org.apache.maven.shared.dependencies.resolve.DependencyResolver;
@@ -62,7 +74,9 @@ import org.apache.maven.shared.repository.RepositoryManager;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Goal that copies the project dependencies from the repository to a defined location.
@@ -78,12 +92,6 @@ public class LinkDependenciesMojo
     @Parameter(property = "link.linkPom", defaultValue = "false")
     protected boolean linkPom = true;
 
-    /**
-     *
-     */
-    @Component
-    private ArtifactInstaller installer;
-
     /**
      *
      */
@@ -307,12 +315,33 @@ public class LinkDependenciesMojo
     @Parameter(property = "link.prependGroupId", defaultValue = "false")
     protected boolean prependGroupId = false;
 
+    /**
+     * File storing the fingerprint of the last successful execution: its configuration, the resolved artifacts and
+     * the files it produced. When the fingerprint is unchanged and a sample of the produced files is still in place,
+     * the execution is skipped without resolving or linking anything. Empty to always run.
+     */
+    @Parameter(property = "link.fingerprintFile",
+            defaultValue = "${project.build.directory}/link-dependencies-maven-plugin/${mojoExecution.executionId}.fingerprint")
+    protected File fingerprintFile;
+
+    /**
+     * Link the <code>classifier</code> artifacts in a streaming pipeline: each artifact is checked and linked as soon
+     * as it is resolved instead of once all of them are, so resolutions overlap with links. Has no effect without a
+     * classifier or with the repository layout, nothing has to be resolved before linking then.
+     */
+    @Parameter(property = "link.streaming", defaultValue = "false")
+    protected boolean streaming;
+
     @Component
     private ProjectBuilder projectBuilder;
 
     @Component
     private ArtifactHandlerManager artifactHandlerManager;
 
+    private final Map<Artifact, LinkPlan> linkPlans = new ConcurrentHashMap<Artifact, LinkPlan>();
+
+    private final PomResolutionCache pomResolutionFailures = new PomResolutionCache();
+
     /**
      * Retrieves dependencies, either direct only or all including transitive.
      *
@@ -353,56 +382,77 @@ public class LinkDependenciesMojo
      */
     protected DependencyStatusSets getDependencySets(boolean stopOnFailure, boolean includeParents)
             throws MojoExecutionException {
-        // add filters in well known order, least specific to most specific
-        final FilterArtifacts filter = new FilterArtifacts();
-
-        filter.addFilter(new ProjectTransitivityFilter(getProject().getDependencyArtifacts(),
-                this.excludeTransitive));
-
-        filter.addFilter(new ScopeFilter(DependencyUtil.cleanToBeTokenizedString(this.includeScope),
-                DependencyUtil.cleanToBeTokenizedString(this.excludeScope)));
+        final CompiledArtifactFilter filter = newArtifactFilter();
+        final Set<Artifact> artifacts = getCandidateArtifacts(includeParents);
 
-        filter.addFilter(new TypeFilter(DependencyUtil.cleanToBeTokenizedString(this.includeTypes),
-                DependencyUtil.cleanToBeTokenizedString(this.excludeTypes)));
-
-        filter.addFilter(new ClassifierFilter(DependencyUtil.cleanToBeTokenizedString(this.includeClassifiers),
-                DependencyUtil.cleanToBeTokenizedString(this.excludeClassifiers)));
-
-        filter.addFilter(new GroupIdFilter(DependencyUtil.cleanToBeTokenizedString(this.includeGroupIds),
-                DependencyUtil.cleanToBeTokenizedString(this.excludeGroupIds)));
-
-        filter.addFilter(new ArtifactIdFilter(DependencyUtil.cleanToBeTokenizedString(this.includeArtifactIds),
-                DependencyUtil.cleanToBeTokenizedString(this.excludeArtifactIds)));
-
-        // start with all artifacts.
-        Set<Artifact> artifacts = getProject().getArtifacts();
-
-        if (includeParents) {
-            // add dependencies parents
-            for (final Artifact dep : new ArrayList<Artifact>(artifacts)) {
-                addParentArtifacts(buildProjectFromArtifact(dep), artifacts);
+        // transform artifacts if classifier is set
+        if (StringUtils.isNotEmpty(classifier)) {
+            final Set<Artifact> filtered;
+            try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.FILTERING)) {
+                filtered = filter.filter(artifacts);
             }
+            return getClassifierTranslatedDependencies(filtered, stopOnFailure);
+        }
 
-            // add current project parent
-            addParentArtifacts(getProject(), artifacts);
+        // filter and split the marked artifacts in the same pass
+        final Set<Artifact> unMarkedArtifacts = new LinkedHashSet<Artifact>();
+        final Set<Artifact> skippedArtifacts = new LinkedHashSet<Artifact>();
+        try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.FILTERING)) {
+            filter.partition(artifacts, getMarkedArtifactFilter(), unMarkedArtifacts, skippedArtifacts);
+        } catch (final ArtifactFilterException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
         }
+        return DependencyStatusSets.wrap(unMarkedArtifacts, null, skippedArtifacts);
+    }
 
-        // perform filtering
+    /**
+     * @return all include/exclude filters, evaluated in a single pass.
+     * @throws MojoExecutionException if the filters are invalid.
+     */
+    private CompiledArtifactFilter newArtifactFilter()
+            throws MojoExecutionException {
         try {
-            artifacts = filter.filter(artifacts);
+            return new CompiledArtifactFilter(this.excludeTransitive ? getProject().getDependencyArtifacts() : null,
+                    DependencyUtil.cleanToBeTokenizedString(this.includeScope),
+                    DependencyUtil.cleanToBeTokenizedString(this.excludeScope),
+                    DependencyUtil.cleanToBeTokenizedString(this.includeTypes),
+                    DependencyUtil.cleanToBeTokenizedString(this.excludeTypes),
+                    DependencyUtil.cleanToBeTokenizedString(this.includeClassifiers),
+                    DependencyUtil.cleanToBeTokenizedString(this.excludeClassifiers),
+                    DependencyUtil.cleanToBeTokenizedString(this.includeGroupIds),
+                    DependencyUtil.cleanToBeTokenizedString(this.excludeGroupIds),
+                    DependencyUtil.cleanToBeTokenizedString(this.includeArtifactIds),
+                    DependencyUtil.cleanToBeTokenizedString(this.excludeArtifactIds));
         } catch (final ArtifactFilterException e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
+    }
 
-        // transform artifacts if classifier is set
-        DependencyStatusSets status;
-        if (StringUtils.isNotEmpty(classifier)) {
-            status = getClassifierTranslatedDependencies(artifacts, stopOnFailure);
-        } else {
-            status = filterMarkedDependencies(artifacts);
-        }
+    /**
+     * @param includeParents <code>true</code> to add the parent poms of the dependencies and of the project.
+     * @return the project artifacts, and their parents, before filtering.
+     * @throws MojoExecutionException if a parent can't be resolved.
+     */
+    private Set<Artifact> getCandidateArtifacts(boolean includeParents)
+            throws MojoExecutionException {
+        // start with all artifacts.
+        Set<Artifact> artifacts = getProject().getArtifacts();
+
+        if (includeParents) {
+            artifacts = new LinkedHashSet<Artifact>(artifacts);
+
+            try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.PARENTS)) {
+                // add dependencies parents
+                for (final List<Artifact> parents : getParentChains(new ArrayList<Artifact>(artifacts))) {
+                    addParentArtifacts(parents, artifacts);
+                }
 
-        return status;
+                // add current project parent
+                addParentArtifacts(getProjectParentChain(getProject(), getLog()), artifacts);
+            }
+        }
+        getMetrics().add(ExecutionMetrics.Counter.ARTIFACTS_CONSIDERED, artifacts.size());
+        return artifacts;
     }
 
     private MavenProject buildProjectFromArtifact(Artifact artifact)
@@ -414,26 +464,111 @@ public class LinkDependenciesMojo
         }
     }
 
-    private void addParentArtifacts(MavenProject project, Set<Artifact> artifacts)
-            throws MojoExecutionException {
-        while (project.hasParent()) {
-            project = project.getParent();
-
-            if (artifacts.contains(project.getArtifact())) {
-                // artifact already in the set
+    private static void addParentArtifacts(List<Artifact> parents, Set<Artifact> artifacts) {
+        for (final Artifact parent : parents) {
+            if (!artifacts.add(parent)) {
+                // artifact already in the set, so are its parents
                 break;
             }
+        }
+    }
+
+    /**
+     * Reads the parent chains of all dependencies concurrently.
+     *
+     * @param artifacts the dependencies.
+     * @return the parent poms of each dependency, closest first, in the dependencies order.
+     * @throws MojoExecutionException if a parent can't be resolved.
+     */
+    private List<List<Artifact>> getParentChains(List<Artifact> artifacts)
+            throws MojoExecutionException {
+        final List<ParallelTaskExecutor.Task<List<Artifact>>> tasks = new ArrayList<ParallelTaskExecutor.Task<List<Artifact>>>();
+        for (final Artifact artifact : artifacts) {
+            tasks.add(new ParallelTaskExecutor.Task<List<Artifact>>() {
+                @Override
+                public List<Artifact> execute(Log log)
+                        throws MojoExecutionException {
+                    return getParentChain(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(),
+                            new HashSet<String>(), log);
+                }
+            });
+        }
+        return newParallelTaskExecutor().execute(tasks);
+    }
+
+    /**
+     * Walks the parents declared by the pom of an artifact. Only the <code>&lt;parent&gt;</code>
+     * element of each pom is read, the project is built with the {@link ProjectBuilder} only when
+     * the pom can't be read or its parent coordinates need interpolation. Chains are remembered for
+     * the whole session.
+     */
+    private List<Artifact> getParentChain(String groupId, String artifactId, String version, Set<String> visited,
+            Log log)
+            throws MojoExecutionException {
+        final ParentChainCache cache = getParentChainCache();
+        List<Artifact> chain = cache.get(groupId, artifactId, version);
+        if (chain != null) {
+            getMetrics().increment(ExecutionMetrics.Counter.PARENT_CHAIN_CACHE_HITS);
+            return chain;
+        }
+
+        if (!visited.add(groupId + ":" + artifactId + ":" + version)) {
+            throw new MojoExecutionException(
+                    "Cycle in the parents of " + groupId + ":" + artifactId + ":" + version);
+        }
+
+        final Artifact pomArtifact = newPomArtifact(groupId, artifactId, version);
+        final Artifact resolvedPom = getResolvedPomArtifact(pomArtifact, log);
+        ParentPomReader.Parent parent = null;
+        boolean readable = resolvedPom != null && resolvedPom.getFile() != null;
+        if (readable) {
             try {
-                final ProjectBuildingRequest buildingRequest = newResolveArtifactProjectBuildingRequest();
+                parent = ParentPomReader.readParent(resolvedPom.getFile());
+                readable = parent == null || parent.isLiteral();
+            } catch (final IOException e) {
+                log.debug(e.getMessage());
+                readable = false;
+            }
+        }
 
-                final Artifact resolvedArtifact = artifactResolver
-                        .resolveArtifact(buildingRequest, project.getArtifact()).getArtifact();
+        if (!readable) {
+            chain = getProjectParentChain(buildProjectFromArtifact(pomArtifact), log);
+        } else if (parent == null) {
+            chain = Collections.emptyList();
+        } else {
+            final Artifact resolvedParent = getResolvedPomArtifact(
+                    newPomArtifact(parent.getGroupId(), parent.getArtifactId(), parent.getVersion()), log);
+            if (resolvedParent == null) {
+                throw new MojoExecutionException("Unable to resolve parent " + parent + " of " + pomArtifact);
+            }
+            chain = new ArrayList<Artifact>();
+            chain.add(resolvedParent);
+            chain.addAll(getParentChain(parent.getGroupId(), parent.getArtifactId(), parent.getVersion(), visited,
+                    log));
+        }
+
+        cache.put(groupId, artifactId, version, chain);
+        return chain;
+    }
 
-                artifacts.add(resolvedArtifact);
-            } catch (final ArtifactResolverException e) {
-                throw new MojoExecutionException(e.getMessage(), e);
+    private List<Artifact> getProjectParentChain(MavenProject project, Log log)
+            throws MojoExecutionException {
+        final List<Artifact> chain = new ArrayList<Artifact>();
+        while (project.hasParent()) {
+            project = project.getParent();
+
+            final Artifact resolvedArtifact = getResolvedPomArtifact(project.getArtifact(), log);
+            if (resolvedArtifact == null) {
+                throw new MojoExecutionException("Unable to resolve parent " + project.getArtifact());
             }
+            chain.add(resolvedArtifact);
         }
+        return chain;
+    }
+
+    private Artifact newPomArtifact(String groupId, String artifactId, String version) {
+        return new DefaultArtifact(groupId, artifactId, version, null, "pom", null,
+                artifactHandlerManager.getArtifactHandler("pom"));
     }
 
     /**
@@ -465,7 +600,9 @@ public class LinkDependenciesMojo
             artifacts = status.getResolvedDependencies();
 
             // resolve the rest of the artifacts
-            resolvedArtifacts = resolve(new LinkedHashSet<ArtifactCoordinate>(coordinates), stopOnFailure);
+            try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.RESOLUTION)) {
+                resolvedArtifacts = resolve(new LinkedHashSet<ArtifactCoordinate>(coordinates), stopOnFailure);
+            }
 
             // calculate the artifacts not resolved.
             unResolvedArtifacts.addAll(artifacts);
@@ -473,10 +610,7 @@ public class LinkDependenciesMojo
         }
 
         // return a bean of all 3 sets.
-        status.setResolvedDependencies(resolvedArtifacts);
-        status.setUnResolvedDependencies(unResolvedArtifacts);
-
-        return status;
+        return DependencyStatusSets.wrap(resolvedArtifacts, unResolvedArtifacts, status.getSkippedDependencies());
     }
 
     /**
@@ -489,53 +623,152 @@ public class LinkDependenciesMojo
     protected DependencyStatusSets filterMarkedDependencies(Set<Artifact> artifacts)
             throws MojoExecutionException {
         // remove files that have markers already
-        final FilterArtifacts filter = new FilterArtifacts();
-        filter.clearFilters();
-        filter.addFilter(getMarkedArtifactFilter());
+        final ArtifactsFilter filter = getMarkedArtifactFilter();
 
-        Set<Artifact> unMarkedArtifacts;
+        final Set<Artifact> unMarkedArtifacts = new LinkedHashSet<Artifact>();
+        final Set<Artifact> skippedArtifacts = new LinkedHashSet<Artifact>();
         try {
-            unMarkedArtifacts = filter.filter(artifacts);
+            for (final Artifact artifact : artifacts) {
+                if (filter.isArtifactIncluded(artifact)) {
+                    unMarkedArtifacts.add(artifact);
+                } else {
+                    skippedArtifacts.add(artifact);
+                }
+            }
         } catch (final ArtifactFilterException e) {
             throw new MojoExecutionException(e.getMessage(), e);
         }
 
-        // calculate the skipped artifacts
-        final Set<Artifact> skippedArtifacts = new LinkedHashSet<Artifact>();
-        skippedArtifacts.addAll(artifacts);
-        skippedArtifacts.removeAll(unMarkedArtifacts);
-
-        return new DependencyStatusSets(unMarkedArtifacts, null, skippedArtifacts);
+        return DependencyStatusSets.wrap(unMarkedArtifacts, null, skippedArtifacts);
     }
 
     /**
+     * Resolves the coordinates concurrently, using up to {@link #getThreads()} resolutions at a
+     * time.
+     *
      * @param coordinates The set of artifact coordinates{@link ArtifactCoordinate}.
      * @param stopOnFailure <code>true</code> if we should fail with exception if an artifact
-     *            couldn't be resolved <code>false</code> otherwise.
-     * @return the resolved artifacts. {@link Artifact}.
+     *            couldn't be resolved <code>false</code> otherwise. Pending resolutions are
+     *            cancelled on the first failure.
+     * @return the resolved artifacts, in the order of the coordinates. {@link Artifact}.
      * @throws MojoExecutionException in case of error.
      */
-    protected Set<Artifact> resolve(Set<ArtifactCoordinate> coordinates, boolean stopOnFailure)
+    protected Set<Artifact> resolve(Set<ArtifactCoordinate> coordinates, final boolean stopOnFailure)
             throws MojoExecutionException {
         final ProjectBuildingRequest buildingRequest = newResolveArtifactProjectBuildingRequest();
 
-        final Set<Artifact> resolvedArtifacts = new LinkedHashSet<Artifact>();
+        final List<ParallelTaskExecutor.Task<Artifact>> tasks = new ArrayList<ParallelTaskExecutor.Task<Artifact>>(
+                coordinates.size());
         for (final ArtifactCoordinate coordinate : coordinates) {
-            try {
-                final Artifact artifact = artifactResolver.resolveArtifact(buildingRequest, coordinate).getArtifact();
-                resolvedArtifacts.add(artifact);
-            } catch (final ArtifactResolverException ex) {
-                // an error occurred during resolution, log it an continue
-                getLog().debug("error resolving: " + coordinate);
-                getLog().debug(ex);
-                if (stopOnFailure) {
-                    throw new MojoExecutionException("error resolving: " + coordinate, ex);
+            tasks.add(new ParallelTaskExecutor.Task<Artifact>() {
+                @Override
+                public Artifact execute(Log log)
+                        throws MojoExecutionException {
+                    return resolve(buildingRequest, coordinate, stopOnFailure, log);
                 }
+            });
+        }
+
+        final Set<Artifact> resolvedArtifacts = new LinkedHashSet<Artifact>();
+        for (final Artifact artifact : newParallelTaskExecutor().execute(tasks)) {
+            if (artifact != null) {
+                resolvedArtifacts.add(artifact);
             }
         }
         return resolvedArtifacts;
     }
 
+    private Artifact resolve(ProjectBuildingRequest buildingRequest, ArtifactCoordinate coordinate,
+            boolean stopOnFailure, Log log)
+            throws MojoExecutionException {
+        try {
+            getMetrics().increment(ExecutionMetrics.Counter.RESOLVER_CALLS);
+            return artifactResolver.resolveArtifact(buildingRequest, coordinate).getArtifact();
+        } catch (final ArtifactResolverException ex) {
+            // an error occurred during resolution, log it an continue
+            log.debug("error resolving: " + coordinate);
+            log.debug(ex);
+            if (stopOnFailure) {
+                throw new MojoExecutionException("error resolving: " + coordinate, ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Translates the filtered artifacts to the configured classifier and type, then resolves, checks and links each
+     * of them as soon as the previous stage is done with it. Resolutions overlap with links, and at most twice
+     * {@link #getThreads()} resolved artifacts wait to be linked.
+     *
+     * @return the linked artifacts, the dependencies whose classifier artifact can't be resolved and the artifacts
+     *         already in place, in the order of the dependencies.
+     * @throws MojoExecutionException if an artifact can't be resolved and failOnMissingClassifierArtifact is set, or
+     *             if a link fails.
+     */
+    protected DependencyStatusSets linkClassifierArtifactsStreaming()
+            throws MojoExecutionException {
+        final Set<Artifact> filtered;
+        final CompiledArtifactFilter filter = newArtifactFilter();
+        final Set<Artifact> candidates = getCandidateArtifacts(addParentPoms);
+        try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.FILTERING)) {
+            filtered = filter.filter(candidates);
+        }
+
+        // one coordinate per filtered artifact, in the same order
+        final List<Artifact> sources = new ArrayList<Artifact>(filtered);
+        final ArtifactTranslator translator = new ClassifierTypeTranslator(artifactHandlerManager, this.classifier,
+                this.type);
+        final List<ArtifactCoordinate> coordinates = new ArrayList<ArtifactCoordinate>(
+                translator.translate(filtered, getLog()));
+
+        final ProjectBuildingRequest buildingRequest = newResolveArtifactProjectBuildingRequest();
+        final ArtifactsFilter markedFilter = getMarkedArtifactFilter();
+        final boolean stopOnFailure = this.failOnMissingClassifierArtifact;
+        final Set<Artifact> skipped = Collections.newSetFromMap(new ConcurrentHashMap<Artifact, Boolean>());
+
+        final List<Artifact> resolved;
+        try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.LINKING)) {
+            resolved = new StreamingPipeline(getThreads(), 2 * getThreads(), getLog()).execute(coordinates,
+                    new StreamingPipeline.Stage<ArtifactCoordinate, Artifact>() {
+                        @Override
+                        public Artifact process(ArtifactCoordinate coordinate, Log log)
+                                throws MojoExecutionException {
+                            return resolve(buildingRequest, coordinate, stopOnFailure, log);
+                        }
+                    }, new StreamingPipeline.Stage<Artifact, Void>() {
+                        @Override
+                        public Void process(Artifact artifact, Log log)
+                                throws MojoExecutionException {
+                            try {
+                                if (!markedFilter.isArtifactIncluded(artifact)) {
+                                    skipped.add(artifact);
+                                    return null;
+                                }
+                            } catch (final ArtifactFilterException e) {
+                                throw new MojoExecutionException(e.getMessage(), e);
+                            }
+                            final LinkPlan plan = getLinkPlan(artifact);
+                            linkFile(plan.getSource(), plan.getDestination(), log);
+                            return null;
+                        }
+                    });
+        }
+
+        final Set<Artifact> linkedArtifacts = new LinkedHashSet<Artifact>();
+        final Set<Artifact> unResolvedArtifacts = new LinkedHashSet<Artifact>();
+        final Set<Artifact> skippedArtifacts = new LinkedHashSet<Artifact>();
+        for (int i = 0; i < resolved.size(); i++) {
+            final Artifact artifact = resolved.get(i);
+            if (artifact == null) {
+                // the producer stage yields null for a coordinate it couldn't resolve
+                unResolvedArtifacts.add(sources.get(i));
+            } else {
+                (skipped.contains(artifact) ? skippedArtifacts : linkedArtifacts).add(artifact);
+            }
+        }
+        return DependencyStatusSets.wrap(linkedArtifacts, unResolvedArtifacts, skippedArtifacts);
+    }
+
     /**
      * @return Returns the markersDirectory.
      */
@@ -663,8 +896,8 @@ public class LinkDependenciesMojo
     }
 
     /**
-     * Main entry into mojo. Gets the list of dependencies and iterates through calling
-     * linkArtifact.
+     * Main entry into mojo. Gets the list of dependencies and links them, using up to
+     * {@link #getThreads()} concurrent links.
      *
      * @throws MojoExecutionException with a message if an error occurs.
      * @see #getDependencySets(boolean, boolean)
@@ -673,71 +906,257 @@ public class LinkDependenciesMojo
     @Override
     protected void doExecute()
             throws MojoExecutionException {
-        final DependencyStatusSets dss = getDependencySets(this.failOnMissingClassifierArtifact, addParentPoms);
-        final Set<Artifact> artifacts = dss.getResolvedDependencies();
-
-        if (!useRepositoryLayout) {
-            for (final Artifact artifact : artifacts) {
-                linkArtifact(artifact, isStripVersion(), this.prependGroupId, this.useBaseVersion,
-                        this.stripClassifier);
+        final ExecutionFingerprint fingerprint = fingerprintFile == null ? null : getExecutionFingerprint();
+        if (fingerprint != null) {
+            if (fingerprint.matches(fingerprintFile)) {
+                getLog().info("Dependencies are unchanged since the last execution, skipping.");
+                keepFingerprintOutputs();
+                return;
             }
-        } else {
-            final ProjectBuildingRequest buildingRequest = getRepositoryManager().setLocalRepositoryBasedir(session.getProjectBuildingRequest(),
-                    outputDirectory);
+            // a failed execution must not leave the previous fingerprint behind
+            if (fingerprintFile.exists() && !fingerprintFile.delete()) {
+                getLog().warn("Unable to delete " + fingerprintFile);
+            }
+        }
 
-            for (final Artifact artifact : artifacts) {
-                installArtifact(artifact, buildingRequest);
+        linkPlans.clear();
+        pomResolutionFailures.clear();
+        final DependencyStatusSets dss;
+        if (streaming && StringUtils.isNotEmpty(classifier) && !useRepositoryLayout) {
+            dss = linkClassifierArtifactsStreaming();
+        } else {
+            dss = getDependencySets(this.failOnMissingClassifierArtifact, addParentPoms);
+            try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.LINKING)) {
+                if (!useRepositoryLayout) {
+                    linkArtifacts(dss.getResolvedDependencies());
+                } else {
+                    installArtifacts(dss.getResolvedDependencies());
+                }
             }
         }
+        final Set<Artifact> artifacts = dss.getResolvedDependencies();
 
         final Set<Artifact> skippedArtifacts = dss.getSkippedDependencies();
         for (final Artifact artifact : skippedArtifacts) {
             getLog().info(artifact.getId() + " already exists in destination.");
         }
+        getMetrics().add(ExecutionMetrics.Counter.ARTIFACTS_SKIPPED, skippedArtifacts.size());
 
         if (isLinkPom() && !useRepositoryLayout) {
-            linkPoms(getOutputDirectory(), artifacts, this.stripVersion);
-            linkPoms(getOutputDirectory(), skippedArtifacts, this.stripVersion, this.stripClassifier); // Artifacts
-                                                                                                       // that already
-                                                                                                       // exist may
-                                                                                                       // not yet have
-                                                                                                       // poms
+            try (ExecutionMetrics.Timer timer = getMetrics().start(ExecutionMetrics.Phase.POMS)) {
+                linkPoms(getOutputDirectory(), artifacts, this.stripVersion);
+                // artifacts that already exist may not yet have poms
+                linkPoms(getOutputDirectory(), skippedArtifacts, this.stripVersion, this.stripClassifier);
+            }
+        }
+
+        for (final File destination : getDestinationFiles(dss)) {
+            addOutput(destination);
+        }
+        updateManifest();
+
+        if (fingerprint != null) {
+            try {
+                // linked and kept artifacts and poms
+                fingerprint.store(fingerprintFile, getOutputFiles());
+            } catch (final IOException e) {
+                getLog().warn("Unable to write " + fingerprintFile + ": " + e.getMessage());
+            }
         }
     }
 
     /**
-     * install the artifact and the corresponding pom if linkPoms=true
-     *
-     * @param artifact
-     * @param targetRepository
+     * Records the outputs of the skipped execution, so that no other execution of the session prunes them.
      */
-    private void installArtifact(Artifact artifact, ProjectBuildingRequest buildingRequest) {
+    private void keepFingerprintOutputs() {
         try {
-            installer.install(buildingRequest, Collections.singletonList(artifact));
-            installBaseSnapshot(artifact, buildingRequest);
+            for (final File output : ExecutionFingerprint.readOutputs(fingerprintFile)) {
+                addOutput(output);
+            }
+        } catch (final IOException e) {
+            getLog().warn("Unable to read the outputs of " + fingerprintFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fingerprints the configuration and the project artifacts, everything the outcome of an execution depends on.
+     *
+     * @return the fingerprint of this execution.
+     */
+    protected ExecutionFingerprint getExecutionFingerprint() {
+        final ExecutionFingerprint fingerprint = new ExecutionFingerprint();
+        fingerprint.add("outputDirectory", outputDirectory == null ? null : outputDirectory.getAbsolutePath())
+                .add("linkPom", linkPom)
+                .add("useBaseVersion", useBaseVersion)
+                .add("addParentPoms", addParentPoms)
+                .add("stripVersion", stripVersion)
+                .add("stripClassifier", stripClassifier)
+                .add("prependGroupId", prependGroupId)
+                .add("useRepositoryLayout", useRepositoryLayout)
+                .add("useSubDirectoryPerScope", useSubDirectoryPerScope)
+                .add("useSubDirectoryPerType", useSubDirectoryPerType)
+                .add("useSubDirectoryPerArtifact", useSubDirectoryPerArtifact)
+                .add("failOnMissingClassifierArtifact", failOnMissingClassifierArtifact)
+                .add("overWriteReleases", overWriteReleases)
+                .add("overWriteSnapshots", overWriteSnapshots)
+                .add("overWriteIfNewer", overWriteIfNewer)
+                .add("excludeTransitive", excludeTransitive)
+                .add("streaming", streaming)
+                .add("includeTypes", includeTypes)
+                .add("excludeTypes", excludeTypes)
+                .add("includeScope", includeScope)
+                .add("excludeScope", excludeScope)
+                .add("includeClassifiers", includeClassifiers)
+                .add("excludeClassifiers", excludeClassifiers)
+                .add("classifier", classifier)
+                .add("type", type)
+                .add("includeArtifactIds", includeArtifactIds)
+                .add("excludeArtifactIds", excludeArtifactIds)
+                .add("includeGroupIds", includeGroupIds)
+                .add("excludeGroupIds", excludeGroupIds)
+                .add("fallbackAction", getFallbackAction())
+                .add("atomicReplace", isAtomicReplace())
+                .add("checkFileIdentity", isCheckFileIdentity())
+                .add("compareContent", isCompareContent())
+                .add("maxLinkClones", getMaxLinkClones())
+                .add("manifestFile", getManifestFile() == null ? null : getManifestFile().getAbsolutePath())
+                .add("pruneStaleLinks", isPruneStaleLinks())
+                .add("markersDirectory", markersDirectory == null ? null : markersDirectory.getAbsolutePath());
+        for (final Artifact artifact : getProject().getArtifacts()) {
+            fingerprint.add(artifact);
+        }
+        if (excludeTransitive) {
+            for (final Artifact artifact : getProject().getDependencyArtifacts()) {
+                fingerprint.add("direct", artifact.getId());
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @param dss the linked and skipped artifacts.
+     * @return the destination files of the artifacts in place.
+     */
+    private List<File> getDestinationFiles(DependencyStatusSets dss) {
+        final ArtifactRepositoryLayout layout = useRepositoryLayout ? repositoryLayouts.get("default") : null;
+        final List<File> outputs = new ArrayList<File>();
+        for (final Set<Artifact> artifacts : Arrays.asList(dss.getResolvedDependencies(),
+                dss.getSkippedDependencies())) {
+            for (final Artifact artifact : artifacts) {
+                final File output = layout != null ? new File(outputDirectory, layout.pathOf(artifact))
+                        : getLinkPlan(artifact).getDestination();
+                if (output.isFile()) {
+                    outputs.add(output);
+                }
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Links the artifacts concurrently. Artifacts sharing the same destination file are linked by the
+     * same task in their original order, so the last one wins as it does in a serial run.
+     *
+     * @param artifacts the artifacts to link.
+     * @throws MojoExecutionException with a message if an error occurs.
+     */
+    private void linkArtifacts(Set<Artifact> artifacts)
+            throws MojoExecutionException {
+        final Map<File, List<LinkPlan>> plansByDestination = new LinkedHashMap<File, List<LinkPlan>>();
+        for (final Artifact artifact : artifacts) {
+            final LinkPlan plan = getLinkPlan(artifact);
+            List<LinkPlan> sameDestination = plansByDestination.get(plan.getDestination());
+            if (sameDestination == null) {
+                sameDestination = new ArrayList<LinkPlan>(1);
+                plansByDestination.put(plan.getDestination(), sameDestination);
+            }
+            sameDestination.add(plan);
+        }
+
+        final List<ParallelTaskExecutor.Task<Void>> tasks = new ArrayList<ParallelTaskExecutor.Task<Void>>(
+                plansByDestination.size());
+        for (final List<LinkPlan> sameDestination : plansByDestination.values()) {
+            tasks.add(new ParallelTaskExecutor.Task<Void>() {
+                @Override
+                public Void execute(Log log)
+                        throws MojoExecutionException {
+                    for (final LinkPlan plan : sameDestination) {
+                        linkFile(plan.getSource(), plan.getDestination(), log);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        newParallelTaskExecutor().execute(tasks);
+    }
+
+    /**
+     * Links the artifacts, and their poms if linkPoms=true, into a repository layout. Timestamped
+     * snapshots get a second link named after their base version, and the
+     * <code>maven-metadata-local.xml</code> files are written once all links are done.
+     *
+     * @param artifacts the artifacts to install.
+     * @throws MojoExecutionException if the metadata can't be written.
+     */
+    private void installArtifacts(Set<Artifact> artifacts)
+            throws MojoExecutionException {
+        final ArtifactRepositoryLayout layout = repositoryLayouts.get("default");
+        if (layout == null) {
+            throw new MojoExecutionException("No default repository layout available");
+        }
+
+        final Map<File, Artifact> artifactsByDestination = new LinkedHashMap<File, Artifact>();
+        for (final Artifact artifact : artifacts) {
+            addRepositoryDestinations(layout, artifact, artifactsByDestination);
 
             if (!"pom".equals(artifact.getType()) && isLinkPom()) {
                 final Artifact pomArtifact = getResolvedPomArtifact(artifact);
                 if (pomArtifact != null && pomArtifact.getFile() != null && pomArtifact.getFile().exists()) {
-                    installer.install(buildingRequest, Collections.singletonList(pomArtifact));
-                    installBaseSnapshot(pomArtifact, buildingRequest);
+                    addRepositoryDestinations(layout, pomArtifact, artifactsByDestination);
                 }
             }
-        } catch (final ArtifactInstallerException e) {
-            getLog().warn("unable to install " + artifact, e);
+        }
+
+        final List<ParallelTaskExecutor.Task<Artifact>> tasks = new ArrayList<ParallelTaskExecutor.Task<Artifact>>(
+                artifactsByDestination.size());
+        for (final Map.Entry<File, Artifact> entry : artifactsByDestination.entrySet()) {
+            tasks.add(new ParallelTaskExecutor.Task<Artifact>() {
+                @Override
+                public Artifact execute(Log log) {
+                    try {
+                        linkFile(entry.getValue().getFile(), entry.getKey(), log);
+                        return entry.getValue();
+                    } catch (final MojoExecutionException e) {
+                        log.warn("unable to install " + entry.getValue(), e);
+                        return null;
+                    }
+                }
+            });
+        }
+
+        final LocalRepositoryMetadataWriter metadata = new LocalRepositoryMetadataWriter(outputDirectory);
+        for (final Artifact installed : newParallelTaskExecutor().execute(tasks)) {
+            if (installed != null) {
+                metadata.add(installed);
+            }
+        }
+        try {
+            metadata.write();
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Unable to write the repository metadata in " + outputDirectory, e);
         }
     }
 
-    private void installBaseSnapshot(Artifact artifact, ProjectBuildingRequest buildingRequest)
-            throws ArtifactInstallerException {
+    private void addRepositoryDestinations(ArtifactRepositoryLayout layout, Artifact artifact,
+            Map<File, Artifact> artifactsByDestination) {
+        artifactsByDestination.put(new File(outputDirectory, layout.pathOf(artifact)), artifact);
+
         if (artifact.isSnapshot() && !artifact.getBaseVersion().equals(artifact.getVersion())) {
-            final String version = artifact.getVersion();
-            try {
-                artifact.setVersion(artifact.getBaseVersion());
-                installer.install(buildingRequest, Collections.singletonList(artifact));
-            } finally {
-                artifact.setVersion(version);
-            }
+            // the base version alias is a second link to the same file
+            final Artifact baseVersion = ArtifactUtils.copyArtifact(artifact);
+            baseVersion.setVersion(artifact.getBaseVersion());
+            artifactsByDestination.put(new File(outputDirectory, layout.pathOf(baseVersion)), artifact);
         }
     }
 
@@ -780,17 +1199,32 @@ public class LinkDependenciesMojo
     protected void linkArtifact(Artifact artifact, boolean removeVersion, boolean prependGroupId,
             boolean useBaseVersion, boolean removeClassifier)
             throws MojoExecutionException {
+        final File destFile = getDestinationFile(artifact, removeVersion, prependGroupId, useBaseVersion,
+                removeClassifier);
+
+        linkFile(artifact.getFile(), destFile);
+    }
 
+    /**
+     * Builds the destination file of an artifact.
+     *
+     * @param artifact the artifact to be linked.
+     * @param removeVersion specifies if the version should be removed from the file name.
+     * @param prependGroupId specifies if the groupId should be prepend to the file name.
+     * @param useBaseVersion specifies if the baseVersion of the artifact should be used instead of
+     *            the version.
+     * @param removeClassifier specifies if the classifier should be removed from the file name.
+     * @return the file the artifact is linked to.
+     */
+    protected File getDestinationFile(Artifact artifact, boolean removeVersion, boolean prependGroupId,
+            boolean useBaseVersion, boolean removeClassifier) {
         final String destFileName = DependencyUtil.getFormattedFileName(artifact, removeVersion, prependGroupId,
                 useBaseVersion, removeClassifier);
 
-        File destDir;
-        destDir = DependencyUtil.getFormattedOutputDirectory(useSubDirectoryPerScope, useSubDirectoryPerType,
-                useSubDirectoryPerArtifact, useRepositoryLayout,
+        final File destDir = DependencyUtil.getFormattedOutputDirectory(useSubDirectoryPerScope,
+                useSubDirectoryPerType, useSubDirectoryPerArtifact, useRepositoryLayout,
                 stripVersion, outputDirectory, artifact);
-        final File destFile = new File(destDir, destFileName);
-
-        linkFile(artifact.getFile(), destFile);
+        return new File(destDir, destFileName);
     }
 
     /**
@@ -822,43 +1256,154 @@ public class LinkDependenciesMojo
 
     {
         for (final Artifact artifact : artifacts) {
+            // poms already linked don't need to be resolved
+            final File pomDestFile = new File(destDir, getPomFileName(artifact, removeVersion, removeClassifier));
+            if (getDestinationIndex().exists(pomDestFile)) {
+                addOutput(pomDestFile);
+                continue;
+            }
+
             final Artifact pomArtifact = getResolvedPomArtifact(artifact);
 
             // Link the pom
             if (pomArtifact != null && pomArtifact.getFile() != null && pomArtifact.getFile().exists()) {
-                final File pomDestFile = new File(destDir, DependencyUtil.getFormattedFileName(pomArtifact, removeVersion, prependGroupId,
-                        useBaseVersion, removeClassifier));
-                if (!pomDestFile.exists()) {
-                    linkFile(pomArtifact.getFile(), pomDestFile);
-                }
+                linkFile(pomArtifact.getFile(), pomDestFile);
             }
         }
     }
 
+    private String getPomFileName(Artifact artifact, boolean removeVersion, boolean removeClassifier) {
+        final Artifact pomArtifact = newPomArtifact(artifact.getGroupId(), artifact.getArtifactId(),
+                artifact.getVersion());
+        return DependencyUtil.getFormattedFileName(pomArtifact, removeVersion, prependGroupId, useBaseVersion,
+                removeClassifier);
+    }
+
+    /**
+     * Resolves the pom of an artifact. Resolved poms are remembered for the whole session, failures
+     * for this execution only.
+     *
+     * @param artifact the artifact whose pom is needed.
+     * @return the resolved pom or <code>null</code> if it could not be resolved.
+     */
     protected Artifact getResolvedPomArtifact(Artifact artifact) {
+        return getResolvedPomArtifact(artifact, getLog());
+    }
+
+    /**
+     * Resolves the pom of an artifact.
+     *
+     * @param artifact the artifact whose pom is needed.
+     * @param log log to report to, concurrent resolutions use a buffered log to keep the output ordered.
+     * @return the resolved pom or <code>null</code> if it could not be resolved.
+     * @see #getResolvedPomArtifact(Artifact)
+     */
+    protected Artifact getResolvedPomArtifact(Artifact artifact, Log log) {
+        final PomResolutionCache cache = getPomResolutionCache();
+        PomResolutionCache.Result cached = cache.get(artifact);
+        if (cached == null) {
+            cached = pomResolutionFailures.get(artifact);
+        }
+        if (cached != null) {
+            if (cached.getFailure() != null) {
+                log.debug(cached.getFailure());
+            }
+            getMetrics().increment(ExecutionMetrics.Counter.POM_CACHE_HITS);
+            return cached.getPomArtifact();
+        }
+
         final DefaultArtifactCoordinate coordinate = new DefaultArtifactCoordinate();
         coordinate.setGroupId(artifact.getGroupId());
         coordinate.setArtifactId(artifact.getArtifactId());
         coordinate.setVersion(artifact.getVersion());
         coordinate.setExtension("pom");
 
-        Artifact pomArtifact = null;
+        PomResolutionCache.Result result;
         // Resolve the pom artifact using repos
         try {
             final ProjectBuildingRequest buildingRequest = newResolveArtifactProjectBuildingRequest();
 
-            pomArtifact = getArtifactResolver().resolveArtifact(buildingRequest, coordinate).getArtifact();
+            getMetrics().increment(ExecutionMetrics.Counter.RESOLVER_CALLS);
+            result = cache.resolved(artifact,
+                    getArtifactResolver().resolveArtifact(buildingRequest, coordinate).getArtifact());
         } catch (final ArtifactResolverException e) {
-            getLog().info(e.getMessage());
+            log.info(e.getMessage());
+            result = pomResolutionFailures.failed(artifact, e.getMessage());
         }
-        return pomArtifact;
+        return result.getPomArtifact();
+    }
+
+    private ParentChainCache getParentChainCache() {
+        return SessionScoped.get(session, ParentChainCache.class,
+                new SessionScoped.Factory<ParentChainCache>() {
+                    @Override
+                    public ParentChainCache create() {
+                        return new ParentChainCache();
+                    }
+                });
     }
 
+    private PomResolutionCache getPomResolutionCache() {
+        return SessionScoped.get(session, PomResolutionCache.class,
+                new SessionScoped.Factory<PomResolutionCache>() {
+                    @Override
+                    public PomResolutionCache create() {
+                        return new PomResolutionCache();
+                    }
+                });
+    }
+
+    /**
+     * @return a filter rejecting the artifacts whose destination is up to date, the plan of each checked artifact is
+     *         kept for {@link #getLinkPlan(Artifact)}.
+     */
     protected ArtifactsFilter getMarkedArtifactFilter() {
-        return new DestFileFilter(this.overWriteReleases, this.overWriteSnapshots, this.overWriteIfNewer,
-                this.useSubDirectoryPerArtifact, this.useSubDirectoryPerType,
+        final DestFileFilter filter = new DestFileFilter(this.overWriteReleases, this.overWriteSnapshots,
+                this.overWriteIfNewer, this.useSubDirectoryPerArtifact, this.useSubDirectoryPerType,
                 this.useSubDirectoryPerScope, this.useRepositoryLayout, this.stripVersion,
                 this.prependGroupId, this.useBaseVersion, this.outputDirectory);
+        filter.setRemoveClassifier(this.stripClassifier);
+        filter.setCompareFileIdentity(isCheckFileIdentity());
+        filter.setCompareContent(isCompareContent());
+        if (isCompareContent()) {
+            filter.setLocalRepositoryDirectory(
+                    repositoryManager.getLocalRepositoryBasedir(session.getProjectBuildingRequest()));
+        }
+        filter.setDestinationIndex(getDestinationIndex());
+        return new AbstractArtifactsFilter() {
+            @Override
+            public Set<Artifact> filter(Set<Artifact> artifacts) {
+                final Set<Artifact> result = new LinkedHashSet<Artifact>();
+                for (final Artifact artifact : artifacts) {
+                    if (isArtifactIncluded(artifact)) {
+                        result.add(artifact);
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public boolean isArtifactIncluded(Artifact artifact) {
+                final LinkPlan plan = filter.plan(artifact);
+                linkPlans.put(artifact, plan);
+                return plan.isLink();
+            }
+        };
+    }
+
+    /**
+     * @param artifact an artifact of this execution.
+     * @return the plan made when the artifact was checked, or a new plan linking the artifact, e.g. for the resolved
+     *         classifier artifacts.
+     */
+    protected LinkPlan getLinkPlan(Artifact artifact) {
+        LinkPlan plan = linkPlans.get(artifact);
+        if (plan == null || !Objects.equals(plan.getSource(), artifact.getFile())) {
+            plan = new LinkPlan(artifact, getDestinationFile(artifact, isStripVersion(), this.prependGroupId,
+                    this.useBaseVersion, this.stripClassifier), LinkPlan.Decision.LINK);
+            linkPlans.put(artifact, plan);
+        }
+        return plan;
     }
 
     /**
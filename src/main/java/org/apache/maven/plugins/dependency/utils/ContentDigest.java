@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Compares files by content digest, so a destination holding the same bytes as a rebuilt artifact is recognized even
+ * though the artifact is a new file. Files are read through a direct buffer reused by each thread; nothing is left
+ * mapped, so the files can be deleted or replaced right away, even on Windows.
+ *
+ * @author marvin
+ */
+public final class ContentDigest {
+
+    /**
+     * Bytes read at once.
+     */
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+    };
+
+    private ContentDigest() {
+    }
+
+    /**
+     * Files of different sizes are never digested. When the source is an artifact of the local repository with a
+     * <code>.sha1</code> sidecar at least as recent as itself, only the destination is digested and compared to it,
+     * otherwise both files are digested with SHA-256. The sidecar is not verified: the local repository is trusted to
+     * hold checksums matching its artifacts, files outside of it never get the shortcut.
+     *
+     * @param source the artifact file.
+     * @param destination the destination file.
+     * @param localRepository the local repository whose checksums are trusted, <code>null</code> to trust none.
+     * @return <code>true</code> if the destination is a regular file with the same content as the source.
+     * @throws IOException if a file can't be read.
+     */
+    public static boolean isSameContent(File source, File destination, File localRepository)
+            throws IOException {
+        if (!destination.isFile() || !source.isFile() || destination.length() != source.length()) {
+            return false;
+        }
+
+        final String sha1 = isInside(source, localRepository) ? readSha1Sidecar(source) : null;
+        if (sha1 != null) {
+            return sha1.equals(toHex(digest(destination, "SHA-1")));
+        }
+        return Arrays.equals(digest(source, "SHA-256"), digest(destination, "SHA-256"));
+    }
+
+    /**
+     * @param file file to digest.
+     * @param algorithm digest algorithm.
+     * @return the digest of the file content.
+     * @throws IOException if the file can't be read.
+     */
+    static byte[] digest(File file, String algorithm)
+            throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " not available", e);
+        }
+
+        final ByteBuffer buffer = BUFFERS.get();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer.clear();
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    private static boolean isInside(File file, File directory) {
+        if (directory == null) {
+            return false;
+        }
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        return path.startsWith(directory.toPath().toAbsolutePath().normalize());
+    }
+
+    private static String readSha1Sidecar(File source)
+            throws IOException {
+        final File sidecar = new File(source.getPath() + ".sha1");
+        // an older sidecar may describe a previous content
+        if (!sidecar.isFile() || sidecar.lastModified() < source.lastModified()) {
+            return null;
+        }
+
+        // "<hex>" or "<hex>  <file name>"
+        final String content = new String(Files.readAllBytes(sidecar.toPath()), StandardCharsets.US_ASCII).trim();
+        final int end = content.indexOf(' ');
+        final String sha1 = (end < 0 ? content : content.substring(0, end)).toLowerCase();
+        return sha1.matches("[0-9a-f]{40}") ? sha1 : null;
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Log that keeps every message in memory until {@link #flush()} replays them, in the order they were written, to the
+ * wrapped log. Used to keep the output of concurrent tasks readable and deterministic.
+ *
+ * @author marvin
+ */
+public class DependencyBufferedLog
+        implements Log {
+
+    private enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    private static final class Entry {
+        private final Level level;
+
+        private final CharSequence content;
+
+        private final Throwable error;
+
+        Entry(Level level, CharSequence content, Throwable error) {
+            this.level = level;
+            this.content = content;
+            this.error = error;
+        }
+    }
+
+    private final Log target;
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    public DependencyBufferedLog(Log target) {
+        this.target = target;
+    }
+
+    /**
+     * Writes all buffered messages to the wrapped log and clears the buffer.
+     */
+    public synchronized void flush() {
+        for (final Entry entry : entries) {
+            switch (entry.level) {
+            case DEBUG:
+                if (entry.error == null) {
+                    target.debug(entry.content);
+                } else if (entry.content == null) {
+                    target.debug(entry.error);
+                } else {
+                    target.debug(entry.content, entry.error);
+                }
+                break;
+            case INFO:
+                if (entry.error == null) {
+                    target.info(entry.content);
+                } else if (entry.content == null) {
+                    target.info(entry.error);
+                } else {
+                    target.info(entry.content, entry.error);
+                }
+                break;
+            case WARN:
+                if (entry.error == null) {
+                    target.warn(entry.content);
+                } else if (entry.content == null) {
+                    target.warn(entry.error);
+                } else {
+                    target.warn(entry.content, entry.error);
+                }
+                break;
+            default:
+                if (entry.error == null) {
+                    target.error(entry.content);
+                } else if (entry.content == null) {
+                    target.error(entry.error);
+                } else {
+                    target.error(entry.content, entry.error);
+                }
+                break;
+            }
+        }
+        entries.clear();
+    }
+
+    private synchronized void add(Level level, CharSequence content, Throwable error) {
+        entries.add(new Entry(level, content, error));
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return target.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        if (isDebugEnabled()) {
+            add(Level.DEBUG, content, null);
+        }
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        if (isDebugEnabled()) {
+            add(Level.DEBUG, content, error);
+        }
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        if (isDebugEnabled()) {
+            add(Level.DEBUG, null, error);
+        }
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return target.isInfoEnabled();
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        add(Level.INFO, content, null);
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        add(Level.INFO, content, error);
+    }
+
+    @Override
+    public void info(Throwable error) {
+        add(Level.INFO, null, error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return target.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        add(Level.WARN, content, null);
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        add(Level.WARN, content, error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        add(Level.WARN, null, error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return target.isErrorEnabled();
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        add(Level.ERROR, content, null);
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        add(Level.ERROR, content, error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        add(Level.ERROR, null, error);
+    }
+}
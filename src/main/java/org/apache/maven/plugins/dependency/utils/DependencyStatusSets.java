@@ -65,6 +65,23 @@ public class DependencyStatusSets {
         }
     }
 
+    /**
+     * Creates a status that takes ownership of the given sets instead of copying them, the caller
+     * must not modify them afterwards.
+     *
+     * @param resolved the resolved dependencies.
+     * @param unResolved the unresolved dependencies.
+     * @param skipped the skipped dependencies.
+     * @return the status.
+     */
+    public static DependencyStatusSets wrap(Set<Artifact> resolved, Set<Artifact> unResolved, Set<Artifact> skipped) {
+        final DependencyStatusSets status = new DependencyStatusSets();
+        status.resolvedDependencies = resolved;
+        status.unResolvedDependencies = unResolved;
+        status.skippedDependencies = skipped;
+        return status;
+    }
+
     /**
      * @return Returns the resolvedDependencies.
      */
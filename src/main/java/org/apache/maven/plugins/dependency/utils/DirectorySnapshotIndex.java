@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Execution scoped index of the destination directories. Each directory is listed once, with a single
+ * {@link DirectoryStream} pass, the first time one of its files is queried; existence checks are then answered from
+ * memory and file attributes (fileKey, size and last modified time) are read at most once per file. Changes done by
+ * the plugin itself must be reported with {@link #added(File)}, {@link #removed(File)}, {@link #refresh(File)} or
+ * {@link #createDirectories(File)}.
+ *
+ * @author marvin
+ */
+public class DirectorySnapshotIndex {
+
+    /**
+     * Snapshot of a single file.
+     */
+    public static final class Entry {
+        private final Path path;
+
+        private volatile BasicFileAttributes attributes;
+
+        Entry(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * @return the file attributes, read on first use, or <code>null</code> if they can't be read.
+         */
+        public BasicFileAttributes getAttributes() {
+            BasicFileAttributes result = attributes;
+            if (result == null) {
+                try {
+                    result = Files.readAttributes(path, BasicFileAttributes.class);
+                    attributes = result;
+                } catch (final IOException e) {
+                    return null;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return the file key (device and inode on unix) or <code>null</code>.
+         */
+        public Object getFileKey() {
+            final BasicFileAttributes result = getAttributes();
+            return result == null ? null : result.fileKey();
+        }
+
+        /**
+         * @return the file size, <code>0</code> if unknown.
+         */
+        public long getSize() {
+            final BasicFileAttributes result = getAttributes();
+            return result == null ? 0 : result.size();
+        }
+
+        /**
+         * @return the last modified time in milliseconds, <code>0</code> if unknown.
+         */
+        public long getLastModified() {
+            final BasicFileAttributes result = getAttributes();
+            return result == null ? 0 : result.lastModifiedTime().toMillis();
+        }
+    }
+
+    private static final class Snapshot {
+        private volatile boolean exists;
+
+        private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+        Snapshot(boolean exists) {
+            this.exists = exists;
+        }
+    }
+
+    private final ConcurrentMap<Path, Snapshot> snapshots = new ConcurrentHashMap<Path, Snapshot>();
+
+    /**
+     * @param file file to look up.
+     * @return the snapshot of the file, <code>null</code> if it does not exist.
+     */
+    public Entry get(File file) {
+        final Path path = file.toPath().toAbsolutePath();
+        return snapshot(path.getParent()).entries.get(path.getFileName().toString());
+    }
+
+    /**
+     * @param file file to look up.
+     * @return <code>true</code> if the file exists.
+     */
+    public boolean exists(File file) {
+        return get(file) != null;
+    }
+
+    /**
+     * Records a file created, or replaced, by the plugin.
+     *
+     * @param file the new file.
+     */
+    public void added(File file) {
+        final Path path = file.toPath().toAbsolutePath();
+        snapshot(path.getParent()).entries.put(path.getFileName().toString(), new Entry(path));
+    }
+
+    /**
+     * Records a file deleted by the plugin.
+     *
+     * @param file the deleted file.
+     */
+    public void removed(File file) {
+        final Path path = file.toPath().toAbsolutePath();
+        snapshot(path.getParent()).entries.remove(path.getFileName().toString());
+    }
+
+    /**
+     * Checks again whether a file exists, for changes the plugin can't predict.
+     *
+     * @param file the file to check.
+     */
+    public void refresh(File file) {
+        if (Files.exists(file.toPath())) {
+            added(file);
+        } else {
+            removed(file);
+        }
+    }
+
+    /**
+     * Creates the directory and its parents unless the snapshot already knows it exists.
+     *
+     * @param directory the directory to create.
+     * @throws IOException if the directory can't be created.
+     */
+    public void createDirectories(File directory)
+            throws IOException {
+        final Path path = directory.toPath().toAbsolutePath();
+        final Snapshot snapshot = snapshot(path);
+        if (!snapshot.exists) {
+            Files.createDirectories(path);
+            snapshot.exists = true;
+        }
+    }
+
+    private Snapshot snapshot(Path directory) {
+        Snapshot snapshot = snapshots.get(directory);
+        if (snapshot == null) {
+            snapshot = list(directory);
+            final Snapshot existing = snapshots.putIfAbsent(directory, snapshot);
+            if (existing != null) {
+                snapshot = existing;
+            }
+        }
+        return snapshot;
+    }
+
+    private static Snapshot list(Path directory) {
+        final Snapshot snapshot;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            snapshot = new Snapshot(true);
+            for (final Path path : stream) {
+                snapshot.entries.put(path.getFileName().toString(), new Entry(path));
+            }
+        } catch (final NoSuchFileException | NotDirectoryException e) {
+            return new Snapshot(false);
+        } catch (final IOException e) {
+            // unreadable directory, behave as if it was empty
+            return new Snapshot(Files.isDirectory(directory));
+        }
+        return snapshot;
+    }
+}
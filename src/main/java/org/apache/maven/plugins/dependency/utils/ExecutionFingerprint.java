@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Fingerprint of an execution: its effective configuration and its input artifacts (coordinates, file path, size and
+ * last modified time). The fingerprint of the last successful execution is stored along with the files it produced,
+ * so an unchanged execution can be detected by computing one digest and checking a sample of the outputs.
+ *
+ * @author marvin
+ */
+public class ExecutionFingerprint {
+
+    /**
+     * Maximum number of outputs checked by {@link #matches(File)}.
+     */
+    static final int SPOT_CHECKS = 32;
+
+    private static final String FORMAT = "link-fingerprint-1";
+
+    private final MessageDigest digest;
+
+    public ExecutionFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        update(FORMAT);
+    }
+
+    /**
+     * @param name configuration name.
+     * @param value configuration value, may be <code>null</code>.
+     * @return this fingerprint.
+     */
+    public ExecutionFingerprint add(String name, Object value) {
+        update(name + '=' + value);
+        return this;
+    }
+
+    /**
+     * @param artifact input artifact.
+     * @return this fingerprint.
+     */
+    public ExecutionFingerprint add(Artifact artifact) {
+        final File file = artifact.getFile();
+        update(artifact.getId() + '|' + artifact.getScope() + '|' + artifact.getBaseVersion() + '|'
+                + (file == null ? "-" : file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified()));
+        return this;
+    }
+
+    /**
+     * @return the hexadecimal digest of everything added so far.
+     */
+    public String get() {
+        final byte[] bytes;
+        try {
+            bytes = ((MessageDigest) digest.clone()).digest();
+        } catch (final CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @param file the stored fingerprint.
+     * @return <code>true</code> if the stored fingerprint is this one and a sample of its outputs still have the
+     *         recorded size.
+     */
+    public boolean matches(File file) {
+        if (!file.isFile()) {
+            return false;
+        }
+
+        final List<String> outputs = new ArrayList<String>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!get().equals(reader.readLine())) {
+                return false;
+            }
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                outputs.add(line);
+            }
+        } catch (final IOException e) {
+            return false;
+        }
+
+        // spot check evenly spread outputs, always including the first and the last one
+        final int checks = Math.min(SPOT_CHECKS, outputs.size());
+        for (int i = 0; i < checks; i++) {
+            final int index = checks == 1 ? 0 : (int) ((long) i * (outputs.size() - 1) / (checks - 1));
+            final String output = outputs.get(index);
+            final int separator = output.lastIndexOf('\t');
+            if (separator < 0) {
+                return false;
+            }
+            final File outputFile = new File(output.substring(0, separator));
+            if (!outputFile.isFile() || outputFile.length() != Long.parseLong(output.substring(separator + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param file the stored fingerprint.
+     * @return the outputs stored along with the fingerprint.
+     * @throws IOException if the file can't be read.
+     */
+    public static List<File> readOutputs(File file)
+            throws IOException {
+        final List<File> outputs = new ArrayList<File>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            // skip the fingerprint
+            reader.readLine();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final int separator = line.lastIndexOf('\t');
+                if (separator >= 0) {
+                    outputs.add(new File(line.substring(0, separator)));
+                }
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Stores this fingerprint along with the outputs of the execution.
+     *
+     * @param file the fingerprint file.
+     * @param outputs files produced, or already in place, for the execution.
+     * @throws IOException if the file can't be written.
+     */
+    public void store(File file, Collection<File> outputs)
+            throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(get());
+            writer.newLine();
+            for (final File output : outputs) {
+                writer.write(output.getAbsolutePath() + '\t' + output.length());
+                writer.newLine();
+            }
+        }
+    }
+
+    private void update(String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+}
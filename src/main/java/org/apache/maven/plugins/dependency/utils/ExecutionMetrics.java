@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and per phase timers of an execution. Safe to update from concurrent tasks: counters are summed, phase
+ * timers add up the wall time of each timed section, so a phase timed once by the goal is its elapsed time.
+ *
+ * @author marvin
+ */
+public class ExecutionMetrics {
+
+    /**
+     * What is counted.
+     */
+    public enum Counter {
+        /** Artifacts given to the filters, parents included. */
+        ARTIFACTS_CONSIDERED,
+        /** Artifacts left in place because their destination is up to date. */
+        ARTIFACTS_SKIPPED,
+        /** Hard links created. */
+        HARD_LINKS,
+        /** Links skipped because another execution of the session already did them. */
+        ALREADY_LINKED,
+        /** Sibling clones created because a source had reached the maximum number of links. */
+        LINK_CLONES,
+        /** Copies made by the fallback action. */
+        COPIES,
+        /** Symbolic links made by the fallback action. */
+        SYMLINKS,
+        /** Destinations the fallback action left missing. */
+        NOT_LINKED,
+        /** Bytes written by the copies. */
+        BYTES_COPIED,
+        /** Requests made to the artifact resolver. */
+        RESOLVER_CALLS,
+        /** Pom resolutions answered by the session cache. */
+        POM_CACHE_HITS,
+        /** Parent chains answered by the session cache. */
+        PARENT_CHAIN_CACHE_HITS,
+        /** Stale links deleted. */
+        PRUNED
+    }
+
+    /**
+     * What is timed.
+     */
+    public enum Phase {
+        PARENTS, FILTERING, RESOLUTION, LINKING, POMS, PRUNING
+    }
+
+    /**
+     * A running timer, adds its elapsed time to its phase when closed.
+     */
+    public final class Timer
+            implements Closeable {
+        private final Phase phase;
+
+        private final long start = System.nanoTime();
+
+        private Timer(Phase phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public void close() {
+            nanos.get(phase).add(System.nanoTime() - start);
+        }
+    }
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<Counter, LongAdder>(Counter.class);
+
+    private final Map<Phase, LongAdder> nanos = new EnumMap<Phase, LongAdder>(Phase.class);
+
+    private final long start = System.nanoTime();
+
+    public ExecutionMetrics() {
+        // filled once, the maps are only read afterwards
+        for (final Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+        for (final Phase phase : Phase.values()) {
+            nanos.put(phase, new LongAdder());
+        }
+    }
+
+    public void increment(Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    public void add(Counter counter, long value) {
+        counters.get(counter).add(value);
+    }
+
+    public long get(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * @param phase the phase to time.
+     * @return a timer to close at the end of the timed section.
+     */
+    public Timer start(Phase phase) {
+        return new Timer(phase);
+    }
+
+    /**
+     * @param phase a phase.
+     * @return the time spent in the phase, in milliseconds.
+     */
+    public long getMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.get(phase).sum());
+    }
+
+    /**
+     * @return the time elapsed since these metrics were created, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * @return a one line summary of the counters and timers.
+     */
+    public String getSummary() {
+        final StringBuilder summary = new StringBuilder();
+        summary.append(get(Counter.ARTIFACTS_CONSIDERED)).append(" artifacts considered, ")
+                .append(get(Counter.ARTIFACTS_SKIPPED)).append(" up to date; ")
+                .append(get(Counter.HARD_LINKS)).append(" hard links, ")
+                .append(get(Counter.ALREADY_LINKED)).append(" already linked, ")
+                .append(get(Counter.LINK_CLONES)).append(" link clones, ")
+                .append(get(Counter.COPIES)).append(" copies (").append(get(Counter.BYTES_COPIED)).append(" bytes), ")
+                .append(get(Counter.SYMLINKS)).append(" symlinks, ")
+                .append(get(Counter.NOT_LINKED)).append(" not linked, ")
+                .append(get(Counter.PRUNED)).append(" pruned; ")
+                .append(get(Counter.RESOLVER_CALLS)).append(" resolver calls, ")
+                .append(get(Counter.POM_CACHE_HITS) + get(Counter.PARENT_CHAIN_CACHE_HITS)).append(" cache hits; ");
+        for (final Phase phase : Phase.values()) {
+            summary.append(name(phase)).append(' ').append(getMillis(phase)).append(" ms, ");
+        }
+        return summary.append("total ").append(getElapsedMillis()).append(" ms").toString();
+    }
+
+    /**
+     * Writes the counters and timers as a JSON object, counters and timers named in camel case.
+     *
+     * @param file the JSON file.
+     * @throws IOException if the file can't be written.
+     */
+    public void writeJson(File file)
+            throws IOException {
+        final StringBuilder json = new StringBuilder("{\n  \"counters\": {");
+        String separator = "\n";
+        for (final Counter counter : Counter.values()) {
+            json.append(separator).append("    \"").append(name(counter)).append("\": ").append(get(counter));
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"phasesMillis\": {");
+        separator = "\n";
+        for (final Phase phase : Phase.values()) {
+            json.append(separator).append("    \"").append(name(phase)).append("\": ").append(getMillis(phase));
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"totalMillis\": ").append(getElapsedMillis()).append("\n}\n");
+
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(json.toString());
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        final StringBuilder name = new StringBuilder();
+        boolean upper = false;
+        for (final char c : value.name().toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? c : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.File;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * What an execution does with one artifact: its source file, its destination and whether the destination must be
+ * linked. Computed once, when the destination is checked, and then used to link the artifact and to report the
+ * outputs, so the destination path is only formatted once per artifact.
+ *
+ * @author marvin
+ */
+public final class LinkPlan {
+
+    /**
+     * What is done with the destination.
+     */
+    public enum Decision {
+        /** The destination is missing or out of date and gets linked. */
+        LINK,
+        /** The destination is up to date and is left alone. */
+        SKIP
+    }
+
+    private final Artifact artifact;
+
+    private final File source;
+
+    private final File destination;
+
+    private final Decision decision;
+
+    /**
+     * @param artifact the artifact.
+     * @param destination the file the artifact is linked to.
+     * @param decision what is done with the destination.
+     */
+    public LinkPlan(Artifact artifact, File destination, Decision decision) {
+        this.artifact = artifact;
+        this.source = artifact.getFile();
+        this.destination = destination;
+        this.decision = decision;
+    }
+
+    public Artifact getArtifact() {
+        return artifact;
+    }
+
+    /**
+     * @return the artifact file, as it was when the plan was made.
+     */
+    public File getSource() {
+        return source;
+    }
+
+    public File getDestination() {
+        return destination;
+    }
+
+    /**
+     * @return the directory of the destination.
+     */
+    public File getDirectory() {
+        return destination.getParentFile();
+    }
+
+    public Decision getDecision() {
+        return decision;
+    }
+
+    /**
+     * @return <code>true</code> if the destination must be linked.
+     */
+    public boolean isLink() {
+        return decision == Decision.LINK;
+    }
+
+    @Override
+    public String toString() {
+        return isLink() ? "link " + source + " to " + destination : "keep " + destination;
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Snapshot;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Writes the minimal <code>maven-metadata-local.xml</code> files of a local repository layout: the versions of each
+ * groupId:artifactId and, for snapshots, a local copy marker in the version directory. Versions already listed by an
+ * existing file are kept. Each file is written once, by {@link #write()}, after all the artifacts have been added.
+ *
+ * @author marvin
+ */
+public class LocalRepositoryMetadataWriter {
+
+    /**
+     * Name of the metadata files of a local repository.
+     */
+    public static final String FILE_NAME = "maven-metadata-local.xml";
+
+    private final File basedir;
+
+    private final Map<String, Set<String>> versions = new LinkedHashMap<String, Set<String>>();
+
+    private final Set<String> snapshots = new LinkedHashSet<String>();
+
+    /**
+     * @param basedir root of the repository.
+     */
+    public LocalRepositoryMetadataWriter(File basedir) {
+        this.basedir = basedir;
+    }
+
+    /**
+     * @param artifact artifact added to the repository.
+     */
+    public synchronized void add(Artifact artifact) {
+        final String key = artifact.getGroupId() + ':' + artifact.getArtifactId();
+        Set<String> artifactVersions = versions.get(key);
+        if (artifactVersions == null) {
+            artifactVersions = new LinkedHashSet<String>();
+            versions.put(key, artifactVersions);
+        }
+        artifactVersions.add(artifact.getBaseVersion());
+
+        if (artifact.isSnapshot()) {
+            snapshots.add(key + ':' + artifact.getBaseVersion());
+        }
+    }
+
+    /**
+     * Writes, or updates, the metadata of all the added artifacts.
+     *
+     * @throws IOException if a file can't be read or written.
+     */
+    public synchronized void write()
+            throws IOException {
+        for (final Map.Entry<String, Set<String>> entry : versions.entrySet()) {
+            final String[] ga = entry.getKey().split(":");
+            final Metadata metadata = read(new File(directory(ga[0], ga[1]), FILE_NAME));
+            metadata.setGroupId(ga[0]);
+            metadata.setArtifactId(ga[1]);
+            final Versioning versioning = versioning(metadata);
+            for (final String version : entry.getValue()) {
+                if (!versioning.getVersions().contains(version)) {
+                    versioning.addVersion(version);
+                }
+            }
+            versioning.updateTimestamp();
+            write(new File(directory(ga[0], ga[1]), FILE_NAME), metadata);
+        }
+
+        for (final String snapshot : snapshots) {
+            final String[] gav = snapshot.split(":");
+            final File file = new File(new File(directory(gav[0], gav[1]), gav[2]), FILE_NAME);
+            final Metadata metadata = read(file);
+            metadata.setGroupId(gav[0]);
+            metadata.setArtifactId(gav[1]);
+            metadata.setVersion(gav[2]);
+            final Versioning versioning = versioning(metadata);
+            final Snapshot localCopy = new Snapshot();
+            localCopy.setLocalCopy(true);
+            versioning.setSnapshot(localCopy);
+            versioning.updateTimestamp();
+            write(file, metadata);
+        }
+    }
+
+    private File directory(String groupId, String artifactId) {
+        return new File(new File(basedir, groupId.replace('.', File.separatorChar)), artifactId);
+    }
+
+    private static Versioning versioning(Metadata metadata) {
+        Versioning versioning = metadata.getVersioning();
+        if (versioning == null) {
+            versioning = new Versioning();
+            metadata.setVersioning(versioning);
+        }
+        return versioning;
+    }
+
+    private static Metadata read(File file)
+            throws IOException {
+        if (!file.isFile()) {
+            return new Metadata();
+        }
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return new MetadataXpp3Reader().read(reader, false);
+        } catch (final XmlPullParserException e) {
+            // a broken file is replaced
+            return new Metadata();
+        }
+    }
+
+    private static void write(File file, Metadata metadata)
+            throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            new MetadataXpp3Writer().write(writer, metadata);
+        }
+    }
+}
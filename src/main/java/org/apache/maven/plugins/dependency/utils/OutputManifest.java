@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * List of the paths produced by an execution, one absolute path per line. Diffing the manifest of the previous
+ * execution against the paths of the current one gives the stale links left behind by removed or updated
+ * dependencies.
+ *
+ * @author marvin
+ */
+public final class OutputManifest {
+
+    private OutputManifest() {
+    }
+
+    /**
+     * @param manifest the manifest file.
+     * @return the paths listed in the manifest, empty if it doesn't exist.
+     * @throws IOException if the manifest can't be read.
+     */
+    public static Set<File> read(File manifest)
+            throws IOException {
+        if (!manifest.isFile()) {
+            return Collections.emptySet();
+        }
+
+        final Set<File> paths = new LinkedHashSet<File>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest.toPath(), StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) {
+                    paths.add(new File(line));
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * @param manifest the manifest file.
+     * @param paths the paths produced by the execution, sorted before being written.
+     * @throws IOException if the manifest can't be written.
+     */
+    public static void write(File manifest, Collection<File> paths)
+            throws IOException {
+        final Set<String> sorted = new TreeSet<String>();
+        for (final File path : paths) {
+            sorted.add(path.getAbsolutePath());
+        }
+
+        Files.createDirectories(manifest.getAbsoluteFile().getParentFile().toPath());
+        try (BufferedWriter writer = Files.newBufferedWriter(manifest.toPath(), StandardCharsets.UTF_8)) {
+            for (final String path : sorted) {
+                writer.write(path);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Runs independent tasks on a bounded thread pool. Each task logs into its own buffer, buffers are replayed and
+ * results returned in submission order, so the output looks the same as a serial run. The first failing task (in
+ * submission order) is rethrown and no further task is started once any task failed.
+ *
+ * @author marvin
+ */
+public class ParallelTaskExecutor {
+
+    /**
+     * Unit of work executed by {@link ParallelTaskExecutor}.
+     *
+     * @param <T> result type
+     */
+    public interface Task<T> {
+        /**
+         * @param log log the task must write to, it is replayed in submission order.
+         * @return the task result, may be <code>null</code>.
+         * @throws MojoExecutionException to abort the whole execution.
+         */
+        T execute(Log log)
+                throws MojoExecutionException;
+    }
+
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final int threads;
+
+    private final Log log;
+
+    /**
+     * @param threads maximum number of tasks running at the same time, <code>1</code> or less runs serially on the
+     *            calling thread.
+     * @param log log the buffered task output is replayed to.
+     */
+    public ParallelTaskExecutor(int threads, Log log) {
+        this.threads = threads;
+        this.log = log;
+    }
+
+    /**
+     * @return the maximum number of concurrent tasks.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Executes all tasks and waits for them to finish.
+     *
+     * @param tasks tasks to execute.
+     * @param <T> result type.
+     * @return the task results, in the same order as the tasks.
+     * @throws MojoExecutionException the failure of the first failing task.
+     */
+    public <T> List<T> execute(List<? extends Task<T>> tasks)
+            throws MojoExecutionException {
+        final List<T> results = new ArrayList<T>(tasks.size());
+
+        if (threads <= 1 || tasks.size() <= 1) {
+            for (final Task<T> task : tasks) {
+                results.add(task.execute(log));
+            }
+            return results;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()),
+                newThreadFactory());
+        try {
+            final AtomicBoolean failed = new AtomicBoolean();
+            final List<DependencyBufferedLog> logs = new ArrayList<DependencyBufferedLog>(tasks.size());
+            final List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+            for (final Task<T> task : tasks) {
+                final DependencyBufferedLog taskLog = new DependencyBufferedLog(log);
+                logs.add(taskLog);
+                futures.add(executor.submit(new Callable<T>() {
+                    @Override
+                    public T call()
+                            throws Exception {
+                        if (failed.get()) {
+                            return null;
+                        }
+                        try {
+                            return task.execute(taskLog);
+                        } catch (final Exception | Error e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                }));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (final ExecutionException e) {
+                    cancel(futures);
+                    throw rethrow(e.getCause());
+                } catch (final InterruptedException e) {
+                    cancel(futures);
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException("Interrupted while waiting for tasks to complete", e);
+                } finally {
+                    logs.get(i).flush();
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void cancel(List<? extends Future<?>> futures) {
+        for (final Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    static MojoExecutionException rethrow(Throwable cause) {
+        if (cause instanceof MojoExecutionException) {
+            return (MojoExecutionException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new MojoExecutionException(cause.getMessage(), cause);
+    }
+
+    static ThreadFactory newThreadFactory() {
+        final int pool = POOL_COUNTER.incrementAndGet();
+        final AtomicInteger counter = new AtomicInteger();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "link-" + pool + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+
+/**
+ * Session scoped memory of parent chains, keyed by groupId:artifactId:version. A chain lists the resolved parent poms
+ * from the closest parent up to the root, so parents shared by many dependencies are read once.
+ *
+ * @author marvin
+ */
+public class ParentChainCache {
+
+    private final ConcurrentMap<String, List<Artifact>> chains = new ConcurrentHashMap<String, List<Artifact>>();
+
+    /**
+     * @param groupId the groupId.
+     * @param artifactId the artifactId.
+     * @param version the version.
+     * @return copies of the remembered parent poms or <code>null</code> if the chain is not known yet.
+     */
+    public List<Artifact> get(String groupId, String artifactId, String version) {
+        final List<Artifact> chain = chains.get(key(groupId, artifactId, version));
+        if (chain == null) {
+            return null;
+        }
+
+        final List<Artifact> copies = new ArrayList<Artifact>(chain.size());
+        for (final Artifact parent : chain) {
+            copies.add(ArtifactUtils.copyArtifact(parent));
+        }
+        return copies;
+    }
+
+    /**
+     * @param groupId the groupId.
+     * @param artifactId the artifactId.
+     * @param version the version.
+     * @param chain the resolved parent poms, closest first.
+     */
+    public void put(String groupId, String artifactId, String version, List<Artifact> chain) {
+        chains.putIfAbsent(key(groupId, artifactId, version),
+                Collections.unmodifiableList(new ArrayList<Artifact>(chain)));
+    }
+
+    private static String key(String groupId, String artifactId, String version) {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+}
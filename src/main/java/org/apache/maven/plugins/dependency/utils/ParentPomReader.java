@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming reader for the <code>&lt;parent&gt;</code> coordinates of a pom. Only the elements up to
+ * <code>&lt;/parent&gt;</code> are parsed, no model is built, interpolated or inherited.
+ *
+ * @author marvin
+ */
+public final class ParentPomReader {
+
+    /**
+     * Coordinates declared in a <code>&lt;parent&gt;</code> element.
+     */
+    public static final class Parent {
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final String version;
+
+        Parent(String groupId, String artifactId, String version) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * @return <code>true</code> if all coordinates are present and none of them needs interpolation.
+         */
+        public boolean isLiteral() {
+            return isLiteral(groupId) && isLiteral(artifactId) && isLiteral(version);
+        }
+
+        private static boolean isLiteral(String value) {
+            return value != null && !value.isEmpty() && !value.contains("${");
+        }
+
+        @Override
+        public String toString() {
+            return groupId + ":" + artifactId + ":" + version;
+        }
+    }
+
+    private static final XMLInputFactory FACTORY = newFactory();
+
+    private ParentPomReader() {
+    }
+
+    /**
+     * @param pom the pom file.
+     * @return the declared parent or <code>null</code> if the pom has no parent.
+     * @throws IOException if the file can't be read or is not well formed.
+     */
+    public static Parent readParent(File pom)
+            throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(pom.toPath()))) {
+            final XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+            try {
+                return readParent(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IOException("Unable to read parent of " + pom + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Parent readParent(XMLStreamReader reader)
+            throws XMLStreamException {
+        int depth = 0;
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if (depth == 2 && "parent".equals(reader.getLocalName())) {
+                    return readCoordinates(reader);
+                }
+                if (depth == 2) {
+                    skipElement(reader);
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return null;
+    }
+
+    private static Parent readCoordinates(XMLStreamReader reader)
+            throws XMLStreamException {
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String name = reader.getLocalName();
+            if ("groupId".equals(name)) {
+                groupId = reader.getElementText().trim();
+            } else if ("artifactId".equals(name)) {
+                artifactId = reader.getElementText().trim();
+            } else if ("version".equals(name)) {
+                version = reader.getElementText().trim();
+            } else {
+                skipElement(reader);
+            }
+        }
+        // stop at </parent>, the rest of the pom is never parsed
+        return new Parent(groupId, artifactId, version);
+    }
+
+    private static void skipElement(XMLStreamReader reader)
+            throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory newFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+}
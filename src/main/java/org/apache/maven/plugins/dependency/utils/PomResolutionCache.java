@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+
+/**
+ * Memory of pom resolutions, keyed by groupId:artifactId:version. The session scoped instance is only given resolved
+ * poms: a failure depends on the remote repositories of the module and may be fixed by a later module installing the
+ * pom, so failures are kept by an instance per execution.
+ *
+ * @author marvin
+ */
+public class PomResolutionCache {
+
+    /**
+     * Outcome of a pom resolution.
+     */
+    public static final class Result {
+        private final Artifact pomArtifact;
+
+        private final String failure;
+
+        private Result(Artifact pomArtifact, String failure) {
+            this.pomArtifact = pomArtifact;
+            this.failure = failure;
+        }
+
+        /**
+         * @return a copy of the resolved pom artifact, <code>null</code> if the resolution failed.
+         */
+        public Artifact getPomArtifact() {
+            return pomArtifact == null ? null : ArtifactUtils.copyArtifact(pomArtifact);
+        }
+
+        /**
+         * @return the failure message, <code>null</code> if the pom was resolved.
+         */
+        public String getFailure() {
+            return failure;
+        }
+    }
+
+    private final ConcurrentMap<String, Result> results = new ConcurrentHashMap<String, Result>();
+
+    /**
+     * @param artifact artifact whose pom is looked up.
+     * @return the remembered result or <code>null</code> if the pom was not resolved yet.
+     */
+    public Result get(Artifact artifact) {
+        return results.get(key(artifact));
+    }
+
+    /**
+     * @param artifact artifact whose pom was resolved.
+     * @param pomArtifact the resolved pom.
+     * @return the remembered result, the first one wins on concurrent resolutions.
+     */
+    public Result resolved(Artifact artifact, Artifact pomArtifact) {
+        return remember(artifact, new Result(pomArtifact, null));
+    }
+
+    /**
+     * @param artifact artifact whose pom could not be resolved.
+     * @param failure the failure message.
+     * @return the remembered result, the first one wins on concurrent resolutions.
+     */
+    public Result failed(Artifact artifact, String failure) {
+        return remember(artifact, new Result(null, failure));
+    }
+
+    /**
+     * Forgets every result.
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    private Result remember(Artifact artifact, Result result) {
+        final Result existing = results.putIfAbsent(key(artifact), result);
+        return existing != null ? existing : result;
+    }
+
+    private static String key(Artifact artifact) {
+        return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * Holds objects that must be shared by every execution of the plugin within the same Maven session, including all
+ * modules of a reactor build. Objects are keyed by the session execution request, which is shared by the per-module
+ * session copies of a parallel build, and are released together with it.
+ *
+ * @author marvin
+ */
+public final class SessionScoped {
+
+    /**
+     * Creates the session instance on first use.
+     *
+     * @param <T> type of the shared object
+     */
+    public interface Factory<T> {
+        T create();
+    }
+
+    private static final Map<Object, Map<Class<?>, Object>> INSTANCES = new WeakHashMap<Object, Map<Class<?>, Object>>();
+
+    private SessionScoped() {
+    }
+
+    /**
+     * @param session current session, when <code>null</code> a new instance is returned every time.
+     * @param type type of the shared object, one instance per type is kept.
+     * @param factory creates the instance if the session has none yet.
+     * @param <T> type of the shared object
+     * @return the instance shared by the session.
+     */
+    public static <T> T get(MavenSession session, Class<T> type, Factory<T> factory) {
+        if (session == null) {
+            return factory.create();
+        }
+
+        final Object key = session.getRequest() != null ? session.getRequest() : session;
+        synchronized (INSTANCES) {
+            Map<Class<?>, Object> instances = INSTANCES.get(key);
+            if (instances == null) {
+                instances = new HashMap<Class<?>, Object>();
+                INSTANCES.put(key, instances);
+            }
+
+            Object instance = instances.get(type);
+            if (instance == null) {
+                instance = factory.create();
+                instances.put(type, instance);
+            }
+            return type.cast(instance);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Runs two stages over a list of inputs, each input flowing to the second stage as soon as the first one is done with
+ * it. Both stages run on up to <code>threads</code> threads and are connected by a bounded queue: when the second
+ * stage falls behind, the first one waits instead of buffering the whole input. Unlike {@link ParallelTaskExecutor}
+ * the output of an input is logged as soon as it is fully processed, so the log follows completion order, each
+ * input's lines kept together. The first failure stops both stages and is rethrown.
+ *
+ * @author marvin
+ */
+public class StreamingPipeline {
+
+    /**
+     * A stage of the pipeline.
+     *
+     * @param <I> input type
+     * @param <O> output type
+     */
+    public interface Stage<I, O> {
+        /**
+         * @param input the input to process.
+         * @param log log of the input, written once the input is fully processed.
+         * @return the output, <code>null</code> to drop the input from the next stage.
+         * @throws MojoExecutionException to abort the whole pipeline.
+         */
+        O process(I input, Log log)
+                throws MojoExecutionException;
+    }
+
+    private static final class Item<M> {
+        private final M value;
+
+        private final DependencyBufferedLog log;
+
+        Item(M value, DependencyBufferedLog log) {
+            this.value = value;
+            this.log = log;
+        }
+    }
+
+    private static final Item<Object> END = new Item<Object>(null, null);
+
+    private final int threads;
+
+    private final int capacity;
+
+    private final Log log;
+
+    /**
+     * @param threads threads of each stage, <code>1</code> or less runs both stages serially on the calling thread.
+     * @param capacity maximum number of inputs waiting between the stages.
+     * @param log log the input output is written to.
+     */
+    public StreamingPipeline(int threads, int capacity, Log log) {
+        this.threads = threads;
+        this.capacity = Math.max(1, capacity);
+        this.log = log;
+    }
+
+    /**
+     * Processes all inputs and waits for both stages to finish.
+     *
+     * @param inputs inputs of the first stage.
+     * @param first first stage.
+     * @param second second stage, receives the non <code>null</code> outputs of the first one.
+     * @param <I> input type.
+     * @param <M> type passed from the first stage to the second one.
+     * @return the outputs of the first stage, in the order of the inputs.
+     * @throws MojoExecutionException the first failure of either stage.
+     */
+    public <I, M> List<M> execute(final List<I> inputs, final Stage<I, M> first, final Stage<M, ?> second)
+            throws MojoExecutionException {
+        final int size = inputs.size();
+        if (threads <= 1 || size <= 1) {
+            final List<M> results = new ArrayList<M>(size);
+            for (final I input : inputs) {
+                final M value = first.process(input, log);
+                if (value != null) {
+                    second.process(value, log);
+                }
+                results.add(value);
+            }
+            return results;
+        }
+
+        final AtomicReferenceArray<M> results = new AtomicReferenceArray<M>(size);
+        final BlockingQueue<Item<?>> queue = new ArrayBlockingQueue<Item<?>>(capacity);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final AtomicInteger next = new AtomicInteger();
+        final int stageThreads = Math.min(threads, size);
+        final AtomicInteger runningProducers = new AtomicInteger(stageThreads);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2 * stageThreads,
+                ParallelTaskExecutor.newThreadFactory());
+        try {
+            for (int t = 0; t < stageThreads; t++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = next.getAndIncrement(); i < size && failure.get() == null; i = next
+                                    .getAndIncrement()) {
+                                final DependencyBufferedLog inputLog = new DependencyBufferedLog(log);
+                                final M value;
+                                try {
+                                    value = first.process(inputs.get(i), inputLog);
+                                } catch (final Exception | Error e) {
+                                    failure.compareAndSet(null, e);
+                                    flush(inputLog);
+                                    return;
+                                }
+                                results.set(i, value);
+                                if (value == null) {
+                                    flush(inputLog);
+                                } else {
+                                    queue.put(new Item<M>(value, inputLog));
+                                }
+                            }
+                        } catch (final InterruptedException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            if (runningProducers.decrementAndGet() == 0) {
+                                // one end marker per consumer, consumers keep draining so this never blocks for long
+                                for (int c = 0; c < stageThreads; c++) {
+                                    putUninterruptibly(queue, END);
+                                }
+                            }
+                        }
+                    }
+                });
+            }
+
+            for (int t = 0; t < stageThreads; t++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void run() {
+                        for (;;) {
+                            final Item<M> item;
+                            try {
+                                item = (Item<M>) queue.take();
+                            } catch (final InterruptedException e) {
+                                failure.compareAndSet(null, e);
+                                return;
+                            }
+                            if (item == END) {
+                                return;
+                            }
+                            // after a failure the queue is only drained
+                            if (failure.get() == null) {
+                                try {
+                                    second.process(item.value, item.log);
+                                } catch (final Exception | Error e) {
+                                    failure.compareAndSet(null, e);
+                                }
+                            }
+                            flush(item.log);
+                        }
+                    }
+                });
+            }
+
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // waiting for both stages
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for the pipeline to complete", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw ParallelTaskExecutor.rethrow(failure.get());
+        }
+
+        final List<M> ordered = new ArrayList<M>(size);
+        for (int i = 0; i < size; i++) {
+            ordered.add(results.get(i));
+        }
+        return ordered;
+    }
+
+    private synchronized void flush(DependencyBufferedLog inputLog) {
+        inputLog.flush();
+    }
+
+    private static void putUninterruptibly(BlockingQueue<Item<?>> queue, Item<?> item) {
+        boolean interrupted = false;
+        for (;;) {
+            try {
+                queue.put(item);
+                break;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils.filters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.artifact.resolver.filter.ScopeArtifactFilter;
+import org.apache.maven.shared.artifact.filter.collection.AbstractArtifactsFilter;
+import org.apache.maven.shared.artifact.filter.collection.ArtifactFilterException;
+import org.apache.maven.shared.artifact.filter.collection.ArtifactIdFilter;
+import org.apache.maven.shared.artifact.filter.collection.ArtifactsFilter;
+import org.apache.maven.shared.artifact.filter.collection.ClassifierFilter;
+import org.apache.maven.shared.artifact.filter.collection.GroupIdFilter;
+import org.apache.maven.shared.artifact.filter.collection.ProjectTransitivityFilter;
+import org.apache.maven.shared.artifact.filter.collection.ScopeFilter;
+import org.apache.maven.shared.artifact.filter.collection.TypeFilter;
+import org.codehaus.plexus.util.StringUtils;
+
+/**
+ * Evaluates the transitivity, scope, type, classifier, groupId and artifactId filters of the
+ * dependency goals in a single pass. It accepts the same artifacts as chaining
+ * {@link ProjectTransitivityFilter}, {@link ScopeFilter}, {@link TypeFilter},
+ * {@link ClassifierFilter}, {@link GroupIdFilter} and {@link ArtifactIdFilter}, but the token
+ * lists are parsed once into hash sets and no intermediate set is built per filter. Results keep
+ * the order of the filtered artifacts.
+ *
+ * @author marvin
+ */
+public class CompiledArtifactFilter
+        extends AbstractArtifactsFilter {
+
+    private final Set<Artifact> directDependencies;
+
+    private final ArtifactFilter scopeFilter;
+
+    private final Set<String> includeTypes;
+
+    private final Set<String> excludeTypes;
+
+    private final Set<String> includeClassifiers;
+
+    private final Set<String> excludeClassifiers;
+
+    private final List<String> includeGroupIds;
+
+    private final List<String> excludeGroupIds;
+
+    private final Set<String> includeArtifactIds;
+
+    private final Set<String> excludeArtifactIds;
+
+    /**
+     * @param directDependencies the project direct dependencies, <code>null</code> to keep transitive dependencies.
+     * @param includeScope scope to include, see {@link ScopeFilter}.
+     * @param excludeScope scope to exclude, ignored if includeScope is set.
+     * @param includeTypes comma separated types to include.
+     * @param excludeTypes comma separated types to exclude.
+     * @param includeClassifiers comma separated classifiers to include.
+     * @param excludeClassifiers comma separated classifiers to exclude.
+     * @param includeGroupIds comma separated groupId prefixes to include.
+     * @param excludeGroupIds comma separated groupId prefixes to exclude.
+     * @param includeArtifactIds comma separated artifactIds to include.
+     * @param excludeArtifactIds comma separated artifactIds to exclude.
+     * @throws ArtifactFilterException if a scope is invalid.
+     */
+    public CompiledArtifactFilter(Set<Artifact> directDependencies, String includeScope, String excludeScope,
+            String includeTypes, String excludeTypes, String includeClassifiers, String excludeClassifiers,
+            String includeGroupIds, String excludeGroupIds, String includeArtifactIds, String excludeArtifactIds)
+            throws ArtifactFilterException {
+        this.directDependencies = directDependencies == null ? null : new HashSet<Artifact>(directDependencies);
+        this.scopeFilter = compileScope(includeScope, excludeScope);
+        this.includeTypes = new HashSet<String>(tokens(includeTypes));
+        this.excludeTypes = new HashSet<String>(tokens(excludeTypes));
+        this.includeClassifiers = new HashSet<String>(tokens(includeClassifiers));
+        this.excludeClassifiers = new HashSet<String>(tokens(excludeClassifiers));
+        this.includeGroupIds = tokens(includeGroupIds);
+        this.excludeGroupIds = tokens(excludeGroupIds);
+        this.includeArtifactIds = new HashSet<String>(tokens(includeArtifactIds));
+        this.excludeArtifactIds = new HashSet<String>(tokens(excludeArtifactIds));
+    }
+
+    @Override
+    public Set<Artifact> filter(Set<Artifact> artifacts) {
+        final Set<Artifact> result = new LinkedHashSet<Artifact>();
+        for (final Artifact artifact : artifacts) {
+            if (isArtifactIncluded(artifact)) {
+                result.add(artifact);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isArtifactIncluded(Artifact artifact) {
+        return (directDependencies == null || directDependencies.contains(artifact))
+                && (scopeFilter == null || scopeFilter.include(artifact))
+                && matches(artifact.getType(), includeTypes, excludeTypes)
+                && matches(artifact.getClassifier(), includeClassifiers, excludeClassifiers)
+                && matchesPrefix(artifact.getGroupId(), includeGroupIds, excludeGroupIds)
+                && matches(artifact.getArtifactId(), includeArtifactIds, excludeArtifactIds);
+    }
+
+    /**
+     * Splits the artifacts between the ones accepted by this filter and then by the marked filter,
+     * and the ones rejected by the marked filter, in a single pass.
+     *
+     * @param artifacts artifacts to filter.
+     * @param markedFilter filter rejecting the artifacts that are already in place, may be <code>null</code>.
+     * @param included receives the artifacts accepted by both filters.
+     * @param skipped receives the artifacts accepted by this filter and rejected by the marked one.
+     * @throws ArtifactFilterException if the marked filter fails.
+     */
+    public void partition(Collection<Artifact> artifacts, ArtifactsFilter markedFilter, Collection<Artifact> included,
+            Collection<Artifact> skipped)
+            throws ArtifactFilterException {
+        for (final Artifact artifact : artifacts) {
+            if (isArtifactIncluded(artifact)) {
+                if (markedFilter == null || markedFilter.isArtifactIncluded(artifact)) {
+                    included.add(artifact);
+                } else {
+                    skipped.add(artifact);
+                }
+            }
+        }
+    }
+
+    private static boolean matches(String feature, Set<String> includes, Set<String> excludes) {
+        if (!includes.isEmpty() && (feature == null || !includes.contains(feature))) {
+            return false;
+        }
+        return feature == null || !excludes.contains(feature);
+    }
+
+    private static boolean matchesPrefix(String feature, List<String> includes, List<String> excludes) {
+        if (!includes.isEmpty() && !startsWithAny(feature, includes)) {
+            return false;
+        }
+        return !startsWithAny(feature, excludes);
+    }
+
+    private static boolean startsWithAny(String feature, List<String> prefixes) {
+        for (final String prefix : prefixes) {
+            if (feature.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same validation and semantics as {@link ScopeFilter}.
+     */
+    private static ArtifactFilter compileScope(String includeScope, String excludeScope)
+            throws ArtifactFilterException {
+        if (StringUtils.isNotEmpty(includeScope)) {
+            if (!isValidScope(includeScope)) {
+                throw new ArtifactFilterException("Invalid Scope in includeScope: " + includeScope);
+            }
+            if (Artifact.SCOPE_PROVIDED.equals(includeScope) || Artifact.SCOPE_SYSTEM.equals(includeScope)) {
+                return new SingleScopeFilter(includeScope, true);
+            }
+            return new ScopeArtifactFilter(includeScope);
+        } else if (StringUtils.isNotEmpty(excludeScope)) {
+            if (!isValidScope(excludeScope)) {
+                throw new ArtifactFilterException("Invalid Scope in excludeScope: " + excludeScope);
+            }
+            if (Artifact.SCOPE_TEST.equals(excludeScope)) {
+                throw new ArtifactFilterException(" Can't exclude Test scope, this will exclude everything.");
+            }
+            if (Artifact.SCOPE_PROVIDED.equals(excludeScope) || Artifact.SCOPE_SYSTEM.equals(excludeScope)) {
+                return new SingleScopeFilter(excludeScope, false);
+            }
+            final ScopeArtifactFilter excluded = new ScopeArtifactFilter(excludeScope);
+            return new ArtifactFilter() {
+                @Override
+                public boolean include(Artifact artifact) {
+                    return !excluded.include(artifact);
+                }
+            };
+        }
+        return null;
+    }
+
+    private static boolean isValidScope(String scope) {
+        return Artifact.SCOPE_COMPILE.equals(scope) || Artifact.SCOPE_TEST.equals(scope)
+                || Artifact.SCOPE_PROVIDED.equals(scope) || Artifact.SCOPE_RUNTIME.equals(scope)
+                || Artifact.SCOPE_SYSTEM.equals(scope);
+    }
+
+    private static List<String> tokens(String value) {
+        if (StringUtils.isEmpty(value)) {
+            return Collections.emptyList();
+        }
+        final List<String> result = new ArrayList<String>();
+        for (final String token : StringUtils.split(value, ",")) {
+            result.add(token);
+        }
+        return result;
+    }
+
+    private static final class SingleScopeFilter
+            implements ArtifactFilter {
+        private final String scope;
+
+        private final boolean include;
+
+        SingleScopeFilter(String scope, boolean include) {
+            this.scope = scope;
+            this.include = include;
+        }
+
+        @Override
+        public boolean include(Artifact artifact) {
+            return scope.equals(artifact.getScope()) == include;
+        }
+    }
+}
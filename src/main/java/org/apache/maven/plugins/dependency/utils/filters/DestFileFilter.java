@@ -35,12 +35,18 @@ package org.apache.maven.plugins.dependency.utils.filters;
  */
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugins.dependency.fromConfiguration.ArtifactItem;
+import org.apache.maven.plugins.dependency.utils.ContentDigest;
 import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.apache.maven.plugins.dependency.utils.DirectorySnapshotIndex;
+import org.apache.maven.plugins.dependency.utils.LinkPlan;
 import org.apache.maven.shared.artifact.filter.collection.AbstractArtifactsFilter;
 import org.apache.maven.shared.artifact.filter.collection.ArtifactFilterException;
 import org.codehaus.plexus.util.StringUtils;
@@ -75,6 +81,14 @@ public class DestFileFilter
 
     private File outputFileDirectory;
 
+    private boolean compareFileIdentity;
+
+    private boolean compareContent;
+
+    private File localRepositoryDirectory;
+
+    private DirectorySnapshotIndex destinationIndex;
+
     public DestFileFilter(File outputFileDirectory) {
         this(false, false, false, false, false, false, false, false, false, false, outputFileDirectory);
     }
@@ -114,6 +128,23 @@ public class DestFileFilter
         return result;
     }
 
+    @Override
+    public boolean isArtifactIncluded(Artifact artifact) {
+        return isArtifactIncluded(new ArtifactItem(artifact));
+    }
+
+    /**
+     * Formats the destination of the artifact and checks it, in a single pass.
+     *
+     * @param artifact the artifact to check.
+     * @return the plan of the artifact, {@link LinkPlan.Decision#LINK} if the artifact is included.
+     */
+    public LinkPlan plan(Artifact artifact) {
+        final File destFile = getDestinationFile(new ArtifactItem(artifact));
+        return new LinkPlan(artifact, destFile,
+                isIncluded(artifact, destFile) ? LinkPlan.Decision.LINK : LinkPlan.Decision.SKIP);
+    }
+
     /**
      * @return Returns the overWriteReleases.
      */
@@ -240,12 +271,78 @@ public class DestFileFilter
         this.useRepositoryLayout = useRepositoryLayout;
     }
 
+    /**
+     * @return Returns the compareFileIdentity.
+     */
+    public boolean isCompareFileIdentity() {
+        return compareFileIdentity;
+    }
+
+    /**
+     * @param compareFileIdentity when <code>true</code> a destination that already is the same file (same device and
+     *            inode) as the artifact is never included, and the remaining checks reuse the attributes read for
+     *            that comparison.
+     */
+    public void setCompareFileIdentity(boolean compareFileIdentity) {
+        this.compareFileIdentity = compareFileIdentity;
+    }
+
+    /**
+     * @return Returns the compareContent.
+     */
+    public boolean isCompareContent() {
+        return compareContent;
+    }
+
+    /**
+     * @param compareContent when <code>true</code> a destination the other checks would overwrite is kept if it has
+     *            the same content as the artifact, see {@link ContentDigest#isSameContent(File, File, File)}.
+     */
+    public void setCompareContent(boolean compareContent) {
+        this.compareContent = compareContent;
+    }
+
+    /**
+     * @return Returns the localRepositoryDirectory.
+     */
+    public File getLocalRepositoryDirectory() {
+        return localRepositoryDirectory;
+    }
+
+    /**
+     * @param localRepositoryDirectory the local repository, whose <code>.sha1</code> checksums are trusted when
+     *            comparing content, <code>null</code> to always digest both files.
+     */
+    public void setLocalRepositoryDirectory(File localRepositoryDirectory) {
+        this.localRepositoryDirectory = localRepositoryDirectory;
+    }
+
+    /**
+     * @return Returns the destinationIndex.
+     */
+    public DirectorySnapshotIndex getDestinationIndex() {
+        return destinationIndex;
+    }
+
+    /**
+     * @param destinationIndex index used to answer existence and freshness checks of the destination files,
+     *            <code>null</code> to query the file system directly.
+     */
+    public void setDestinationIndex(DirectorySnapshotIndex destinationIndex) {
+        this.destinationIndex = destinationIndex;
+    }
+
     @Override
     public boolean isArtifactIncluded(ArtifactItem item) {
-        final Artifact artifact = item.getArtifact();
+        return isIncluded(item.getArtifact(), getDestinationFile(item));
+    }
 
-        final boolean overWrite = (artifact.isSnapshot() && this.overWriteSnapshots)
-                || (!artifact.isSnapshot() && this.overWriteReleases);
+    /**
+     * @param item the artifact item.
+     * @return the file the artifact of the item is linked to.
+     */
+    public File getDestinationFile(ArtifactItem item) {
+        final Artifact artifact = item.getArtifact();
 
         File destFolder = item.getOutputDirectory();
         if (destFolder == null) {
@@ -254,16 +351,84 @@ public class DestFileFilter
                     removeVersion, this.outputFileDirectory, artifact);
         }
 
-        File destFile;
         if (StringUtils.isEmpty(item.getDestFileName())) {
             final String formattedFileName = DependencyUtil.getFormattedFileName(artifact, removeVersion, prependGroupId,
                     useBaseVersion, removeClassifier);
-            destFile = new File(destFolder, formattedFileName);
+            return new File(destFolder, formattedFileName);
+        }
+        return new File(destFolder, item.getDestFileName());
+    }
+
+    private boolean isIncluded(Artifact artifact, File destFile) {
+        final boolean overWrite = (artifact.isSnapshot() && this.overWriteSnapshots)
+                || (!artifact.isSnapshot() && this.overWriteReleases);
+
+        final boolean included;
+        if (destinationIndex != null) {
+            included = isIncludedByIndex(artifact.getFile(), destFile, overWrite);
+        } else if (compareFileIdentity) {
+            included = isIncludedByFileIdentity(artifact.getFile(), readAttributes(destFile), overWrite);
         } else {
-            destFile = new File(destFolder, item.getDestFileName());
+            included = overWrite || !destFile.exists()
+                    || (overWriteIfNewer && artifact.getFile().lastModified() > destFile.lastModified());
         }
 
-        return overWrite || !destFile.exists()
-                || (overWriteIfNewer && artifact.getFile().lastModified() > destFile.lastModified());
+        // only digest destinations that would otherwise be replaced
+        return included && !(compareContent && isSameContent(artifact.getFile(), destFile));
+    }
+
+    private boolean isSameContent(File sourceFile, File destFile) {
+        try {
+            return sourceFile != null && ContentDigest.isSameContent(sourceFile, destFile, localRepositoryDirectory);
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    private boolean isIncludedByIndex(File sourceFile, File destFile, boolean overWrite) {
+        if (overWrite && !compareFileIdentity) {
+            return true;
+        }
+
+        final DirectorySnapshotIndex.Entry destEntry = destinationIndex.get(destFile);
+        if (destEntry == null) {
+            return true;
+        }
+
+        if (compareFileIdentity) {
+            final BasicFileAttributes destAttributes = destEntry.getAttributes();
+            return destAttributes == null || isIncludedByFileIdentity(sourceFile, destAttributes, overWrite);
+        }
+
+        return overWriteIfNewer && sourceFile.lastModified() > destEntry.getLastModified();
+    }
+
+    private boolean isIncludedByFileIdentity(File sourceFile, BasicFileAttributes destAttributes,
+            boolean overWrite) {
+        if (destAttributes == null) {
+            return true;
+        }
+
+        final BasicFileAttributes sourceAttributes = sourceFile == null ? null : readAttributes(sourceFile);
+        if (sourceAttributes == null) {
+            return overWrite;
+        }
+
+        final Object sourceKey = sourceAttributes.fileKey();
+        if (sourceKey != null && sourceKey.equals(destAttributes.fileKey())) {
+            // already linked
+            return false;
+        }
+
+        return overWrite || (overWriteIfNewer
+                && sourceAttributes.lastModifiedTime().toMillis() > destAttributes.lastModifiedTime().toMillis());
+    }
+
+    private static BasicFileAttributes readAttributes(File file) {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (final IOException e) {
+            return null;
+        }
     }
 }
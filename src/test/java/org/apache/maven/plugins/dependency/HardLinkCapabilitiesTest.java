@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HardLinkCapabilitiesTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private HardLinkCapabilities capabilities;
+    private FileSystemException error;
+    private Path sourceFile;
+
+    @Before
+    public void setUp() throws IOException {
+        capabilities = new HardLinkCapabilities();
+        error = new FileSystemException("a", "b", "Invalid cross-device link");
+        sourceFile = tempDir.newFile().toPath();
+    }
+
+    @Test
+    public void sameStoreFailureIsNotRemembered() throws Exception {
+        final Path target = tempDir.getRoot().toPath().resolve("target.jar");
+
+        assertThat(capabilities.recordFailure(sourceFile, target, error), equalTo(false));
+        assertThat(capabilities.getFailure(sourceFile, target), nullValue());
+    }
+
+    @Test
+    public void crossStoreFailureIsRemembered() throws Exception {
+        final Path otherStore = Paths.get("/dev/shm");
+        assumeThat(Files.isDirectory(otherStore) && Files.isWritable(otherStore), equalTo(true));
+        assumeThat(Files.getFileStore(otherStore).equals(Files.getFileStore(sourceFile)), equalTo(false));
+
+        final Path target = otherStore.resolve("target.jar");
+        final Path otherSource = tempDir.newFile().toPath();
+
+        assertThat(capabilities.getFailure(sourceFile, target), nullValue());
+        assertThat(capabilities.recordFailure(sourceFile, target, error), equalTo(true));
+        // each file gets its own failure with the recorded reason
+        final FileSystemException failure = capabilities.getFailure(otherSource, otherStore.resolve("other.jar"));
+        assertThat(failure.getFile(), equalTo(otherSource.toString()));
+        assertThat(failure.getOtherFile(), equalTo(otherStore.resolve("other.jar").toString()));
+        assertThat(failure.getReason(), equalTo(error.getReason()));
+        assertThat(capabilities.getFailure(sourceFile, tempDir.getRoot().toPath().resolve("local.jar")), nullValue());
+    }
+
+    @Test
+    public void reflinkFailureIsRemembered() throws Exception {
+        final Path target = tempDir.getRoot().toPath().resolve("clone.jar");
+
+        assertThat(capabilities.isReflinkPossible(sourceFile, target), equalTo(true));
+        capabilities.recordReflinkFailure(sourceFile, target);
+        assertThat(capabilities.isReflinkPossible(tempDir.newFile().toPath(), target), equalTo(false));
+    }
+
+    @Test
+    public void crossStoreReflinkIsAttemptedOnce() throws Exception {
+        final Path otherStore = Paths.get("/dev/shm");
+        assumeThat(Files.isDirectory(otherStore), equalTo(true));
+        assumeThat(Files.getFileStore(otherStore).equals(Files.getFileStore(sourceFile)), equalTo(false));
+
+        // subvolumes and bind mounts refuse hard links but may accept clones
+        final Path target = otherStore.resolve("clone.jar");
+        assertThat(capabilities.isReflinkPossible(sourceFile, target), equalTo(true));
+        capabilities.recordReflinkFailure(sourceFile, target);
+        assertThat(capabilities.isReflinkPossible(sourceFile, otherStore.resolve("other.jar")), equalTo(false));
+        assertThat(capabilities.isReflinkPossible(sourceFile, tempDir.getRoot().toPath().resolve("local.jar")),
+                equalTo(true));
+    }
+
+}
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 
 public class InvalidCrossDeviceLinkFallbackTest {
 
@@ -78,6 +79,28 @@ public class InvalidCrossDeviceLinkFallbackTest {
         assertThat(Files.isSameFile(sourceFile, destFile), equalTo(false));
     }
 
+    @Test
+    public void reflinkOrCopy() throws Exception {
+        final byte[] content = new byte[1024 * 1024 + 17];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(sourceFile, content);
+        Files.setLastModifiedTime(sourceFile, FileTime.fromMillis(1500000000000L));
+
+        InvalidCrossDeviceLinkFallback.reflink_or_copy.fallback(
+                log,
+                sourceFile,
+                destFile,
+                error);
+
+        assertThat(log.getContent().length(), equalTo(0));
+        assertThat(Files.isRegularFile(destFile), equalTo(true));
+        assertThat(Files.isSameFile(sourceFile, destFile), equalTo(false));
+        assertThat(Files.readAllBytes(destFile), equalTo(content));
+        assertThat(Files.getLastModifiedTime(destFile), equalTo(Files.getLastModifiedTime(sourceFile)));
+    }
+
     @Test
     public void symlink() throws Exception {
         InvalidCrossDeviceLinkFallback.symlink.fallback(
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LinkCoordinatorTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private LinkCoordinator coordinator;
+    private File source;
+    private File destination;
+
+    @Before
+    public void setUp() throws IOException {
+        coordinator = new LinkCoordinator();
+        source = tempDir.newFile("source.jar");
+        destination = new File(tempDir.getRoot(), "destination.jar");
+    }
+
+    @Test
+    public void linkIsDoneOnce() throws Exception {
+        coordinator.claim(source, destination, false).complete(true);
+
+        assertThat(coordinator.claim(source, destination, false), nullValue());
+        assertThat(coordinator.claim(source, destination, true), notNullValue());
+    }
+
+    @Test
+    public void failedLinkIsRetried() throws Exception {
+        coordinator.claim(source, destination, false).complete(false);
+
+        assertThat(coordinator.claim(source, destination, false), notNullValue());
+    }
+
+    @Test
+    public void otherSourceReplacesLink() throws Exception {
+        coordinator.claim(source, destination, false).complete(true);
+
+        assertThat(coordinator.claim(tempDir.newFile("other.jar"), destination, false), notNullValue());
+    }
+
+    @Test
+    public void concurrentLinkIsAwaited() throws Exception {
+        final LinkCoordinator.Claim claim = coordinator.claim(source, destination, false);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<LinkCoordinator.Claim> waiting = executor.submit(new Callable<LinkCoordinator.Claim>() {
+                @Override
+                public LinkCoordinator.Claim call() throws Exception {
+                    return coordinator.claim(source, destination, false);
+                }
+            });
+
+            Thread.sleep(100);
+            assertThat(waiting.isDone(), equalTo(false));
+
+            claim.complete(true);
+            assertThat(waiting.get(10, TimeUnit.SECONDS), nullValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.plugins.dependency.utils.ExecutionMetrics;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LinkCountPoolTest {
+
+    private static final int MAX_LINKS = 2;
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private final Map<Path, Integer> links = new HashMap<Path, Integer>();
+
+    private final ExecutionMetrics metrics = new ExecutionMetrics();
+
+    private final HardLinkCapabilities capabilities = new HardLinkCapabilities();
+
+    private LinkCountPool pool;
+
+    private Path source;
+
+    @Before
+    public void setUp() throws IOException {
+        // every file accepts MAX_LINKS links, then fails like a file system out of links
+        pool = new LinkCountPool() {
+            @Override
+            void createLink(Path target, Path existing) throws IOException {
+                final int count = getLinkCount(existing);
+                if (count >= MAX_LINKS) {
+                    // EMLINK in another locale
+                    throw new FileSystemException(target.toString(), existing.toString(), "Zu viele Links");
+                }
+                super.createLink(target, existing);
+                links.put(existing, count + 1);
+            }
+
+            @Override
+            int getLinkCount(Path file) {
+                final Integer count = links.get(file);
+                return count == null ? 0 : count;
+            }
+
+            @Override
+            int getLinkLimit(Path file) {
+                return MAX_LINKS;
+            }
+        };
+        source = tempDir.newFile("guava.jar").toPath();
+        Files.write(source, "content".getBytes("UTF-8"));
+        Files.setLastModifiedTime(source, FileTime.fromMillis(1500000000000L));
+        links.put(source, MAX_LINKS);
+    }
+
+    @Test
+    public void exhaustedSourceIsLinkedThroughClones() throws Exception {
+        assertThat(pool.getLinkSource(source), equalTo(source));
+
+        for (int i = 0; i < 4; i++) {
+            final Path target = tempDir.getRoot().toPath().resolve("target" + i + ".jar");
+            assertThat(pool.link(source, target, 3, metrics, capabilities), equalTo(true));
+            assertThat(Files.isSameFile(target, LinkCountPool.clonePath(source, 1 + i / MAX_LINKS)), equalTo(true));
+            assertThat(new String(Files.readAllBytes(target), "UTF-8"), equalTo("content"));
+        }
+
+        assertThat(pool.getLinkSource(source), equalTo(LinkCountPool.clonePath(source, 2)));
+        assertThat(metrics.get(ExecutionMetrics.Counter.LINK_CLONES), equalTo(2L));
+        assertThat(Files.getLastModifiedTime(LinkCountPool.clonePath(source, 1)),
+                equalTo(Files.getLastModifiedTime(source)));
+    }
+
+    @Test
+    public void copiedCloneIsCounted() throws Exception {
+        // clones sharing blocks copy nothing, rule them out to count a plain copy
+        capabilities.recordReflinkFailure(source, LinkCountPool.clonePath(source, 1));
+
+        assertThat(pool.link(source, tempDir.getRoot().toPath().resolve("target.jar"), 1, metrics, capabilities),
+                equalTo(true));
+        assertThat(metrics.get(ExecutionMetrics.Counter.LINK_CLONES), equalTo(1L));
+        assertThat(metrics.get(ExecutionMetrics.Counter.BYTES_COPIED), equalTo(Files.size(source)));
+    }
+
+    @Test
+    public void fullPoolFallsBack() throws Exception {
+        final Path root = tempDir.getRoot().toPath();
+        assertThat(pool.link(source, root.resolve("a.jar"), 1, metrics, capabilities), equalTo(true));
+        assertThat(pool.link(source, root.resolve("b.jar"), 1, metrics, capabilities), equalTo(true));
+        assertThat(pool.link(source, root.resolve("c.jar"), 1, metrics, capabilities), equalTo(false));
+        assertThat(Files.exists(root.resolve("c.jar")), equalTo(false));
+    }
+
+    @Test
+    public void staleCloneIsReplaced() throws Exception {
+        final Path clone = LinkCountPool.clonePath(source, 1);
+        Files.write(clone, "previous version".getBytes("UTF-8"));
+
+        final Path target = tempDir.getRoot().toPath().resolve("target.jar");
+        assertThat(pool.link(source, target, 1, metrics, capabilities), equalTo(true));
+        assertThat(new String(Files.readAllBytes(target), "UTF-8"), equalTo("content"));
+        assertThat(metrics.get(ExecutionMetrics.Counter.LINK_CLONES), equalTo(1L));
+    }
+
+    @Test
+    public void existingCloneIsReused() throws Exception {
+        final Path clone = LinkCountPool.clonePath(source, 1);
+        Files.copy(source, clone);
+        Files.setLastModifiedTime(clone, Files.getLastModifiedTime(source));
+
+        final Path target = tempDir.getRoot().toPath().resolve("target.jar");
+        assertThat(pool.link(source, target, 1, metrics, capabilities), equalTo(true));
+        assertThat(Files.isSameFile(target, clone), equalTo(true));
+        assertThat(metrics.get(ExecutionMetrics.Counter.LINK_CLONES), equalTo(0L));
+    }
+
+    @Test
+    public void otherFailuresArePropagated() throws Exception {
+        final LinkCountPool failing = new LinkCountPool() {
+            @Override
+            void createLink(Path target, Path existing) throws IOException {
+                throw new FileSystemException(target.toString(), existing.toString(), "Permission denied");
+            }
+        };
+
+        try {
+            failing.link(source, tempDir.getRoot().toPath().resolve("target.jar"), 1, metrics, capabilities);
+            fail("the link failure is not about the link count");
+        } catch (final FileSystemException e) {
+            assertThat(e.getReason(), equalTo("Permission denied"));
+        }
+    }
+
+    @Test
+    public void fewLinksAreNotExhausted() throws Exception {
+        Files.createLink(tempDir.getRoot().toPath().resolve("link.jar"), source);
+        assertThat(new LinkCountPool().isLinkCountExhausted(source, denied()), equalTo(false));
+        assertThat(new LinkCountPool().isLinkCountExhausted(source,
+                new FileSystemException(source.toString(), null, "Too many links")), equalTo(true));
+    }
+
+    @Test
+    public void deniedLinkToSharedFileIsNotExhausted() throws Exception {
+        // a cached jar with many links, below the limit of its file system or on one with no known limit
+        final LinkCountPool shared = new LinkCountPool() {
+            @Override
+            int getLinkCount(Path file) {
+                return 5000;
+            }
+        };
+        assertThat(shared.isLinkCountExhausted(source, denied()), equalTo(false));
+        assertThat(pool.isLinkCountExhausted(source, denied()), equalTo(true));
+    }
+
+    @Test
+    public void readOnlySourceDirectoryIsNotCloned() throws Exception {
+        final LinkCountPool readOnly = new LinkCountPool() {
+            @Override
+            boolean isCloneable(Path file) {
+                return false;
+            }
+        };
+
+        final Path target = tempDir.getRoot().toPath().resolve("target.jar");
+        assertThat(readOnly.link(source, target, 1, metrics, capabilities), equalTo(false));
+        assertThat(Files.exists(LinkCountPool.clonePath(source, 1)), equalTo(false));
+        assertThat(Files.exists(target), equalTo(false));
+    }
+
+    private FileSystemException denied() {
+        return new FileSystemException(source.toString(), null, "Operation not permitted");
+    }
+}
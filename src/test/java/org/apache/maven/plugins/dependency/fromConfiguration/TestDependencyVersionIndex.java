@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.fromConfiguration;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Dependency;
+
+public class TestDependencyVersionIndex
+        extends TestCase {
+
+    public void testLookupOrder() {
+        final DependencyVersionIndex index = new DependencyVersionIndex(
+                Arrays.asList(dependency("g", "a", null, "jar", "1"), dependency("g", "a", "tests", "jar", "2"),
+                        dependency("g", "a", null, "jar", "3")),
+                Arrays.asList(dependency("g", "a", "sources", "jar", "4"), dependency("g", "b", null, "war", "5")));
+
+        // exact match, first dependency wins
+        assertEquals("1", index.findVersion(item("g", "a", null, "jar")));
+        assertEquals("2", index.findVersion(item("g", "a", "tests", "jar")));
+        // exact match in the dependency management before a loose match in the dependencies
+        assertEquals("4", index.findVersion(item("g", "a", "sources", "jar")));
+        // loose matches
+        assertEquals("1", index.findVersion(item("g", "a", "javadoc", "jar")));
+        assertEquals("5", index.findVersion(item("g", "b", null, "jar")));
+        assertNull(index.findVersion(item("g", "c", null, "jar")));
+    }
+
+    public void testEmptyClassifierIsNotNull() {
+        final DependencyVersionIndex index = new DependencyVersionIndex(
+                Collections.singletonList(dependency("g", "a", "", "jar", "1")),
+                Collections.singletonList(dependency("g", "a", null, "jar", "2")));
+
+        assertEquals("2", index.findVersion(item("g", "a", null, "jar")));
+    }
+
+    public void testNoDependencyManagement() {
+        final DependencyVersionIndex index = new DependencyVersionIndex(
+                Collections.singletonList(dependency("g", "a", null, "jar", "1")), null);
+
+        assertEquals("1", index.findVersion(item("g", "a", null, "pom")));
+    }
+
+    private static Dependency dependency(String groupId, String artifactId, String classifier, String type,
+            String version) {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setClassifier(classifier);
+        dependency.setType(type);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
+    private static ArtifactItem item(String groupId, String artifactId, String classifier, String type) {
+        final ArtifactItem item = new ArtifactItem();
+        item.setGroupId(groupId);
+        item.setArtifactId(artifactId);
+        item.setClassifier(classifier);
+        item.setType(type);
+        return item;
+    }
+}
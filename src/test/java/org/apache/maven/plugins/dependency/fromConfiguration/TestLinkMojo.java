@@ -36,7 +36,10 @@ package org.apache.maven.plugins.dependency.fromConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -45,8 +48,10 @@ import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.dependency.AbstractDependencyMojoTestCase;
 import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.apache.maven.plugins.dependency.utils.ExecutionMetrics;
 import org.apache.maven.project.MavenProject;
 import org.sonatype.aether.impl.internal.SimpleLocalRepositoryManager;
 import org.sonatype.aether.util.DefaultRepositorySystemSession;
@@ -122,6 +127,55 @@ public class TestLinkMojo
         assertEquals("e", item.getClassifier());
     }
 
+    public void testSetArtifactList()
+            throws Exception {
+        mojo.setArtifact("a:b:c, d:e:f:g:h,");
+        final List<ArtifactItem> items = mojo.getArtifactItems();
+        assertEquals(2, items.size());
+        assertEquals("b", items.get(0).getArtifactId());
+        assertEquals("jar", items.get(0).getType());
+        assertEquals("d", items.get(1).getGroupId());
+        assertEquals("h", items.get(1).getClassifier());
+    }
+
+    public void testArtifactsFile()
+            throws Exception {
+        final List<ArtifactItem> list = createArtifactItemArtifacts(
+                stubFactory.getArtifactItems(stubFactory.getClassifiedArtifacts()));
+        final List<String> lines = new ArrayList<String>();
+        lines.add("# runtime artifacts");
+        for (final ArtifactItem item : list) {
+            lines.add(item.getGroupId() + ":" + item.getArtifactId() + ":" + item.getVersion() + ":"
+                    + item.getType() + (item.getClassifier() == null ? "" : ":" + item.getClassifier()));
+            lines.add("");
+        }
+        final File artifactsFile = new File(testDir, "artifacts.txt");
+        testDir.mkdirs();
+        Files.write(artifactsFile.toPath(), lines, StandardCharsets.UTF_8);
+
+        mojo.setArtifactItems(null);
+        mojo.setArtifactsFile(artifactsFile);
+        mojo.execute();
+
+        assertEquals(list.size(), mojo.getArtifactItems().size());
+        assertFilesExist(mojo.getArtifactItems(), true);
+    }
+
+    public void testArtifactsFileInvalidLine()
+            throws Exception {
+        final File artifactsFile = new File(testDir, "artifacts.txt");
+        testDir.mkdirs();
+        Files.write(artifactsFile.toPath(), Arrays.asList("a:b:c", "a:b"), StandardCharsets.UTF_8);
+
+        mojo.setArtifactsFile(artifactsFile);
+        try {
+            mojo.execute();
+            fail("Expected MojoFailureException");
+        } catch (final MojoFailureException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(artifactsFile + ":2: Invalid artifact"));
+        }
+    }
+
     public void testGetArtifactItems()
             throws Exception {
 
@@ -175,6 +229,18 @@ public class TestLinkMojo
         assertFilesExist(list, true);
     }
 
+    public void testLinkFileMultipleThreads()
+            throws Exception {
+        final List<ArtifactItem> list = stubFactory.getArtifactItems(stubFactory.getClassifiedArtifacts());
+
+        mojo.setArtifactItems(createArtifactItemArtifacts(list));
+        mojo.setThreads(4);
+
+        mojo.execute();
+
+        assertFilesExist(list, true);
+    }
+
     public void testLinkFileWithBaseVersion()
             throws Exception {
         final List<ArtifactItem> list = stubFactory.getArtifactItems(stubFactory.getClassifiedArtifacts());
@@ -224,6 +290,24 @@ public class TestLinkMojo
         assertFilesExist(list, true);
     }
 
+    public void testUpToDateItemsAreNotResolved()
+            throws Exception {
+        final List<ArtifactItem> list = stubFactory.getArtifactItems(stubFactory.getReleaseAndSnapshotArtifacts());
+
+        mojo.setArtifactItems(createArtifactItemArtifacts(list));
+        mojo.execute();
+        assertFilesExist(list, true);
+        assertEquals(list.size(), mojo.getMetrics().get(ExecutionMetrics.Counter.RESOLVER_CALLS));
+
+        // only the snapshot is resolved again
+        mojo.execute();
+        assertEquals(1, mojo.getMetrics().get(ExecutionMetrics.Counter.RESOLVER_CALLS));
+
+        mojo.setCheckLocalRepositoryFirst(false);
+        mojo.execute();
+        assertEquals(list.size(), mojo.getMetrics().get(ExecutionMetrics.Counter.RESOLVER_CALLS));
+    }
+
     public void testLinkToLocation()
             throws Exception {
         final List<ArtifactItem> list = stubFactory.getArtifactItems(stubFactory.getClassifiedArtifacts());
@@ -564,6 +648,32 @@ public class TestLinkMojo
         }
     }
 
+    public void testArtifactNotFoundReportedInConfigurationOrder()
+            throws Exception {
+        final List<ArtifactItem> list = createArtifactItemArtifacts(
+                stubFactory.getArtifactItems(stubFactory.getClassifiedArtifacts()));
+        list.add(1, newMissingArtifactItem("missing-first"));
+        list.add(list.size() - 1, newMissingArtifactItem("missing-second"));
+        mojo.setArtifactItems(list);
+        mojo.setThreads(4);
+
+        try {
+            mojo.execute();
+            fail("ExpectedException");
+        } catch (final MojoExecutionException e) {
+            assertEquals("Unable to find/resolve artifact.", e.getMessage());
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("missing-first"));
+        }
+    }
+
+    private static ArtifactItem newMissingArtifactItem(String artifactId) {
+        final ArtifactItem item = new ArtifactItem();
+        item.setArtifactId(artifactId);
+        item.setGroupId("groupId");
+        item.setVersion("1.0");
+        return item;
+    }
+
     public void testNoArtifactItems() {
         try {
             mojo.getProcessedArtifactItems(new ProcessArtifactItemsRequest(false, false, false, false));
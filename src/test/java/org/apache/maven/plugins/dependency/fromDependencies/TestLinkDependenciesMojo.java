@@ -36,6 +36,9 @@ package org.apache.maven.plugins.dependency.fromDependencies;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -46,9 +49,14 @@ import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.dependency.AbstractDependencyMojoTestCase;
+import org.apache.maven.plugins.dependency.InvalidCrossDeviceLinkFallback;
+import org.apache.maven.plugins.dependency.utils.DependencyStatusSets;
 import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.apache.maven.plugins.dependency.utils.ExecutionMetrics;
 import org.apache.maven.plugins.dependency.utils.markers.DefaultFileMarkerHandler;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.StringUtils;
 import org.sonatype.aether.impl.internal.SimpleLocalRepositoryManager;
 import org.sonatype.aether.util.DefaultRepositorySystemSession;
@@ -93,6 +101,24 @@ public class TestLinkDependenciesMojo
         setVariableValueToObject(mojo, "artifactHandlerManager", manager);
     }
 
+    /**
+     * @return the mojo of another module of the same session, linking the same artifacts.
+     */
+    private LinkDependenciesMojo newMojoOfSameSession()
+            throws Exception {
+        final File testPom = new File(getBasedir(),
+                "target/test-classes/unit/link-dependencies-test/plugin-config.xml");
+        final LinkDependenciesMojo other = (LinkDependenciesMojo) lookupMojo("link-dependencies", testPom);
+        assertNotSame(mojo, other);
+        other.outputDirectory = mojo.outputDirectory;
+        other.markersDirectory = mojo.markersDirectory;
+        other.getProject().setArtifacts(mojo.getProject().getArtifacts());
+        other.getProject().setDependencyArtifacts(mojo.getProject().getDependencyArtifacts());
+        setVariableValueToObject(other, "session", getVariableValueFromObject(mojo, "session"));
+        setVariableValueToObject(other, "artifactHandlerManager", lookup(ArtifactHandlerManager.class));
+        return other;
+    }
+
     public void assertNoMarkerFile(Artifact artifact) {
         final DefaultFileMarkerHandler handle = new DefaultFileMarkerHandler(artifact, mojo.markersDirectory);
         try {
@@ -115,6 +141,40 @@ public class TestLinkDependenciesMojo
         assertTrue(dest.exists());
     }
 
+    public void testLinkFileCreatedSinceSnapshot()
+            throws Exception {
+        final File src = File.createTempFile("link", null);
+        // lists the output directory before the destination exists
+        linkFile(mojo, src, new File(mojo.outputDirectory, "first.jar"));
+
+        // another module links the destination behind the snapshot
+        final File dest = new File(mojo.outputDirectory, "concurrent.jar");
+        FileUtils.fileWrite(dest, "UTF-8", "other module");
+
+        mojo.setFallbackAction(InvalidCrossDeviceLinkFallback.throw_error);
+        linkFile(mojo, src, dest);
+        assertEquals(Files.readAttributes(src.toPath(), BasicFileAttributes.class).fileKey(),
+                Files.readAttributes(dest.toPath(), BasicFileAttributes.class).fileKey());
+        assertEquals(0, mojo.getMetrics().get(ExecutionMetrics.Counter.COPIES));
+    }
+
+    public void testLinkFileAtomicReplace()
+            throws Exception {
+        final File src = File.createTempFile("link", null);
+        final File dest = new File(mojo.outputDirectory, "replaced.jar");
+        assertTrue(dest.getParentFile().mkdirs());
+        FileUtils.fileWrite(dest, "UTF-8", "previous");
+
+        mojo.setAtomicReplace(true);
+        linkFile(mojo, src, dest);
+        assertEquals(Files.readAttributes(src.toPath(), BasicFileAttributes.class).fileKey(),
+                Files.readAttributes(dest.toPath(), BasicFileAttributes.class).fileKey());
+
+        // linking again over the same file leaves no temporary file behind
+        linkFile(mojo, src, dest);
+        assertEquals(Arrays.asList(dest.getName()), Arrays.asList(mojo.outputDirectory.list()));
+    }
+
     /**
      * tests the proper discovery and configuration of the mojo
      *
@@ -134,6 +194,205 @@ public class TestLinkDependenciesMojo
         }
     }
 
+    public void testFingerprintSkipsUnchangedExecution()
+            throws Exception {
+        mojo.fingerprintFile = new File(this.testDir, "fingerprint/default.fingerprint");
+        mojo.execute();
+        assertTrue(mojo.fingerprintFile.exists());
+
+        // same size, different file: not detected by the spot check, so the execution is skipped
+        final Artifact artifact = mojo.getProject().getArtifacts().iterator().next();
+        final File dest = new File(mojo.outputDirectory, DependencyUtil.getFormattedFileName(artifact, false));
+        final byte[] content = Files.readAllBytes(dest.toPath());
+        assertTrue(dest.delete());
+        Files.write(dest.toPath(), content);
+        mojo.execute();
+        assertFalse(isSameFile(artifact.getFile(), dest));
+
+        // a changed configuration runs again and stores a new fingerprint
+        final String fingerprint = FileUtils.fileRead(mojo.fingerprintFile);
+        mojo.overWriteReleases = true;
+        mojo.execute();
+        assertFalse(fingerprint.equals(FileUtils.fileRead(mojo.fingerprintFile)));
+
+        // so does a missing output
+        assertTrue(dest.delete());
+        mojo.execute();
+        assertTrue(dest.exists());
+
+        // and any parameter changing what is produced
+        final String linkedFingerprint = FileUtils.fileRead(mojo.fingerprintFile);
+        mojo.setManifestFile(new File(this.testDir, "manifest/default-link-dependencies.manifest"));
+        mojo.setPruneStaleLinks(true);
+        mojo.execute();
+        assertTrue(mojo.getManifestFile().exists());
+        assertFalse(linkedFingerprint.equals(FileUtils.fileRead(mojo.fingerprintFile)));
+    }
+
+    public void testFingerprintListsLinkedPoms()
+            throws Exception {
+        mojo.fingerprintFile = new File(this.testDir, "fingerprint/poms.fingerprint");
+        mojo.setLinkPom(true);
+
+        final Artifact artifact = stubFactory.createArtifact("org.apache.maven", "maven-artifact", "2.0.7",
+                Artifact.SCOPE_COMPILE);
+        stubFactory.createArtifact("org.apache.maven", "maven-artifact", "2.0.7", Artifact.SCOPE_COMPILE, "pom",
+                null);
+        mojo.getProject().setArtifacts(new HashSet<Artifact>(Arrays.asList(artifact)));
+        mojo.execute();
+
+        final File pom = new File(mojo.outputDirectory, "maven-artifact-2.0.7.pom");
+        assertTrue(pom.exists());
+        assertTrue(FileUtils.fileRead(mojo.fingerprintFile).contains(pom.getAbsolutePath() + '\t'));
+    }
+
+    public void testCompareContentKeepsSameBytes()
+            throws Exception {
+        mojo.execute();
+
+        final Artifact artifact = mojo.getProject().getArtifacts().iterator().next();
+        final File dest = new File(mojo.outputDirectory, DependencyUtil.getFormattedFileName(artifact, false));
+        final byte[] content = Files.readAllBytes(dest.toPath());
+        assertTrue(dest.delete());
+        Files.write(dest.toPath(), content);
+
+        mojo.overWriteReleases = true;
+        mojo.overWriteSnapshots = true;
+        mojo.setCompareContent(true);
+        mojo.execute();
+        assertFalse(isSameFile(artifact.getFile(), dest));
+        // the links are kept as the same files, the copy for its content
+        assertEquals(mojo.getProject().getArtifacts().size(),
+                mojo.getMetrics().get(ExecutionMetrics.Counter.ARTIFACTS_SKIPPED));
+    }
+
+    public void testMetrics()
+            throws Exception {
+        mojo.setMetricsFile(new File(this.testDir, "metrics/link-metrics.json"));
+        mojo.execute();
+
+        final int count = mojo.getProject().getArtifacts().size();
+        assertEquals(count, mojo.getMetrics().get(ExecutionMetrics.Counter.ARTIFACTS_CONSIDERED));
+        assertEquals(count, mojo.getMetrics().get(ExecutionMetrics.Counter.HARD_LINKS));
+        assertEquals(0, mojo.getMetrics().get(ExecutionMetrics.Counter.COPIES));
+
+        final String json = FileUtils.fileRead(mojo.getMetricsFile());
+        assertTrue(json, json.contains("\"hardLinks\": " + count + ","));
+        assertTrue(json, json.contains("\"linking\": "));
+
+        // a second execution finds everything in place
+        mojo.execute();
+        assertEquals(count, mojo.getMetrics().get(ExecutionMetrics.Counter.ARTIFACTS_SKIPPED));
+        assertEquals(0, mojo.getMetrics().get(ExecutionMetrics.Counter.HARD_LINKS));
+    }
+
+    public void testPruneStaleLinks()
+            throws Exception {
+        mojo.setManifestFile(new File(this.testDir, "manifest/default-link-dependencies.manifest"));
+        mojo.setPruneStaleLinks(true);
+        mojo.execute();
+
+        final File foreign = new File(mojo.outputDirectory, "foreign.jar");
+        FileUtils.fileWrite(foreign, "UTF-8", "not linked by the plugin");
+
+        final Set<Artifact> artifacts = new HashSet<Artifact>(mojo.getProject().getArtifacts());
+        final Artifact removed = artifacts.iterator().next();
+        artifacts.remove(removed);
+        mojo.getProject().setArtifacts(artifacts);
+
+        // a new build, the links of the previous one are not claimed anymore
+        final MavenSession session = newMavenSession(mojo.getProject());
+        ((DefaultRepositorySystemSession) session.getRepositorySession())
+                .setLocalRepositoryManager(new SimpleLocalRepositoryManager(stubFactory.getWorkingDir()));
+        setVariableValueToObject(mojo, "session", session);
+        setVariableValueToObject(mojo, "linkCoordinator", null);
+        mojo.execute();
+
+        assertFalse(new File(mojo.outputDirectory, DependencyUtil.getFormattedFileName(removed, false)).exists());
+        for (final Artifact artifact : artifacts) {
+            assertTrue(new File(mojo.outputDirectory, DependencyUtil.getFormattedFileName(artifact, false)).exists());
+        }
+        assertTrue(foreign.exists());
+    }
+
+    public void testPruneKeepsSkippedOutputsOfOtherModules()
+            throws Exception {
+        doTestPruneKeepsOutputsOfOtherModules(false);
+    }
+
+    public void testPruneKeepsFingerprintedOutputsOfOtherModules()
+            throws Exception {
+        doTestPruneKeepsOutputsOfOtherModules(true);
+    }
+
+    /**
+     * Two modules link the same dependencies to one directory, only the first one prunes.
+     */
+    private void doTestPruneKeepsOutputsOfOtherModules(boolean fingerprint)
+            throws Exception {
+        mojo.setManifestFile(new File(this.testDir, "manifest/pruning.manifest"));
+        mojo.setPruneStaleLinks(true);
+        mojo.execute();
+        LinkDependenciesMojo other = newMojoOfSameSession();
+        if (fingerprint) {
+            other.fingerprintFile = new File(this.testDir, "fingerprint/other.fingerprint");
+        }
+        other.execute();
+
+        // a new build where the pruning module no longer needs an artifact the other one still links
+        final MavenSession session = newMavenSession(mojo.getProject());
+        ((DefaultRepositorySystemSession) session.getRepositorySession())
+                .setLocalRepositoryManager(new SimpleLocalRepositoryManager(stubFactory.getWorkingDir()));
+        setVariableValueToObject(mojo, "session", session);
+        setVariableValueToObject(mojo, "linkCoordinator", null);
+        final File otherFingerprint = other.fingerprintFile;
+        other = newMojoOfSameSession();
+        other.fingerprintFile = otherFingerprint;
+
+        // up to date, the other module only keeps its outputs
+        other.execute();
+        assertEquals(0, other.getMetrics().get(ExecutionMetrics.Counter.HARD_LINKS));
+        assertEquals(fingerprint ? 0 : mojo.getProject().getArtifacts().size(),
+                other.getMetrics().get(ExecutionMetrics.Counter.ARTIFACTS_SKIPPED));
+
+        final Set<Artifact> artifacts = new HashSet<Artifact>(mojo.getProject().getArtifacts());
+        final Artifact removed = artifacts.iterator().next();
+        artifacts.remove(removed);
+        mojo.getProject().setArtifacts(artifacts);
+        mojo.execute();
+
+        assertTrue(new File(mojo.outputDirectory, DependencyUtil.getFormattedFileName(removed, false)).exists());
+        assertEquals(0, mojo.getMetrics().get(ExecutionMetrics.Counter.PRUNED));
+    }
+
+    private static boolean isSameFile(File a, File b)
+            throws IOException {
+        return Files.readAttributes(a.toPath(), BasicFileAttributes.class).fileKey()
+                .equals(Files.readAttributes(b.toPath(), BasicFileAttributes.class).fileKey());
+    }
+
+    public void testSingleThread()
+            throws Exception {
+        doTestThreads(1);
+    }
+
+    public void testMultipleThreads()
+            throws Exception {
+        doTestThreads(4);
+    }
+
+    private void doTestThreads(int threads)
+            throws Exception {
+        mojo.setThreads(threads);
+        mojo.execute();
+        final Set<Artifact> artifacts = mojo.getProject().getArtifacts();
+        for (final Artifact artifact : artifacts) {
+            final String fileName = DependencyUtil.getFormattedFileName(artifact, false);
+            final File file = new File(mojo.outputDirectory, fileName);
+            assertTrue(file.exists());
+        }
+    }
+
     public void testStripVersion()
             throws Exception {
         mojo.stripVersion = true;
@@ -160,6 +419,19 @@ public class TestLinkDependenciesMojo
         }
     }
 
+    public void testStripClassifierSkipsLinkedArtifacts()
+            throws Exception {
+        mojo.getProject().setArtifacts(stubFactory.getClassifiedArtifacts());
+        mojo.stripClassifier = true;
+        mojo.execute();
+
+        // the destination checked is the one linked
+        mojo.execute();
+        final int count = mojo.getProject().getArtifacts().size();
+        assertEquals(count, mojo.getMetrics().get(ExecutionMetrics.Counter.ARTIFACTS_SKIPPED));
+        assertEquals(0, mojo.getMetrics().get(ExecutionMetrics.Counter.HARD_LINKS));
+    }
+
     public void testUseBaseVersion()
             throws Exception {
         mojo.useBaseVersion = true;
@@ -413,6 +685,19 @@ public class TestLinkDependenciesMojo
         dotestClassifierType("jdk14", "sources");
     }
 
+    public void testCDMClassifierTypeMultipleThreads()
+            throws Exception {
+        mojo.setThreads(4);
+        dotestClassifierType("jdk14", "sources");
+    }
+
+    public void testCDMClassifierTypeStreaming()
+            throws Exception {
+        mojo.setThreads(4);
+        mojo.streaming = true;
+        dotestClassifierType("jdk14", "sources");
+    }
+
     public void dotestClassifierType(String testClassifier, String testType)
             throws Exception {
         mojo.classifier = testClassifier;
@@ -463,6 +748,33 @@ public class TestLinkDependenciesMojo
         dotestArtifactExceptions(true, false);
     }
 
+    public void testArtifactNotFoundMultipleThreads()
+            throws Exception {
+        mojo.setThreads(4);
+        dotestArtifactExceptions(false, true);
+    }
+
+    public void testArtifactNotFoundStreaming()
+            throws Exception {
+        mojo.setThreads(4);
+        mojo.streaming = true;
+        dotestArtifactExceptions(false, true);
+    }
+
+    public void testArtifactNotFoundStreamingIsUnresolved()
+            throws Exception {
+        mojo.classifier = "jdk";
+        mojo.type = "java-sources";
+        mojo.failOnMissingClassifierArtifact = false;
+        final Set<Artifact> expected = mojo.getDependencySets(false).getUnResolvedDependencies();
+        assertFalse(expected.isEmpty());
+
+        mojo.setThreads(4);
+        final DependencyStatusSets dss = mojo.linkClassifierArtifactsStreaming();
+        assertEquals(expected, dss.getUnResolvedDependencies());
+        assertTrue(dss.getResolvedDependencies().isEmpty());
+    }
+
     public void dotestArtifactExceptions(boolean are, boolean anfe)
             throws Exception {
         mojo.classifier = "jdk";
@@ -722,6 +1034,69 @@ public class TestLinkDependenciesMojo
         }
     }
 
+    public void testPomResolutionIsRemembered()
+            throws Exception {
+        final Artifact artifact = stubFactory.createArtifact("org.apache.maven", "maven-artifact", "2.0.8",
+                Artifact.SCOPE_COMPILE);
+        stubFactory.createArtifact("org.apache.maven", "maven-artifact", "2.0.8", Artifact.SCOPE_COMPILE, "pom",
+                null);
+        final Artifact missing = stubFactory.createArtifact("org.apache.maven", "missing-artifact", "2.0.8",
+                Artifact.SCOPE_COMPILE);
+
+        final Artifact pomArtifact = mojo.getResolvedPomArtifact(artifact);
+        assertNotNull(pomArtifact);
+        assertNull(mojo.getResolvedPomArtifact(missing));
+
+        // both hits and misses are answered without the resolver
+        final ArtifactResolver resolver = (ArtifactResolver) getVariableValueFromObject(mojo, "artifactResolver");
+        setVariableValueToObject(mojo, "artifactResolver", null);
+        assertEquals(pomArtifact.getFile(), mojo.getResolvedPomArtifact(artifact).getFile());
+        assertNull(mojo.getResolvedPomArtifact(missing));
+
+        // another execution of the session only reuses the hit
+        final LinkDependenciesMojo other = newMojoOfSameSession();
+        setVariableValueToObject(other, "artifactResolver", null);
+        assertEquals(pomArtifact.getFile(), other.getResolvedPomArtifact(artifact).getFile());
+        setVariableValueToObject(other, "artifactResolver", resolver);
+        final long resolverCalls = other.getMetrics().get(ExecutionMetrics.Counter.RESOLVER_CALLS);
+        assertNull(other.getResolvedPomArtifact(missing));
+        assertEquals(resolverCalls + 1, other.getMetrics().get(ExecutionMetrics.Counter.RESOLVER_CALLS));
+    }
+
+    public void testAddParentPoms()
+            throws Exception {
+        final Artifact child = stubFactory.createArtifact("org.example", "child", "1.0", Artifact.SCOPE_COMPILE);
+        writePom(stubFactory.createArtifact("org.example", "child", "1.0", Artifact.SCOPE_COMPILE, "pom", null),
+                "<parent><groupId>org.example</groupId><artifactId>parent</artifactId><version>2.0</version></parent>");
+        writePom(stubFactory.createArtifact("org.example", "parent", "2.0", Artifact.SCOPE_COMPILE, "pom", null),
+                "<parent><groupId>org.example</groupId><artifactId>root</artifactId><version>3.0</version></parent>");
+        writePom(stubFactory.createArtifact("org.example", "root", "3.0", Artifact.SCOPE_COMPILE, "pom", null),
+                "<groupId>org.example</groupId>");
+
+        final Set<Artifact> set = new HashSet<Artifact>();
+        set.add(child);
+        mojo.getProject().setArtifacts(set);
+        mojo.getProject().setDependencyArtifacts(set);
+        mojo.setThreads(4);
+
+        final Set<String> ids = new HashSet<String>();
+        for (final Artifact artifact : mojo.getDependencySets(true, true).getResolvedDependencies()) {
+            ids.add(artifact.getId());
+        }
+        assertTrue(ids.toString(), ids.contains("org.example:parent:pom:2.0"));
+        assertTrue(ids.toString(), ids.contains("org.example:root:pom:3.0"));
+
+        // chains are remembered, poms are not read again
+        setVariableValueToObject(mojo, "artifactResolver", null);
+        assertEquals(ids.size(), mojo.getDependencySets(true, true).getResolvedDependencies().size());
+    }
+
+    private static void writePom(Artifact pom, String content)
+            throws IOException {
+        FileUtils.fileWrite(pom.getFile(), "UTF-8", "<project><modelVersion>4.0.0</modelVersion>" + content
+                + "<artifactId>" + pom.getArtifactId() + "</artifactId></project>");
+    }
+
     public void testPrependGroupId()
             throws Exception {
         mojo.prependGroupId = true;
@@ -36,6 +36,8 @@ package org.apache.maven.plugins.dependency.fromDependencies;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -59,6 +61,7 @@ import org.apache.maven.plugins.dependency.AbstractDependencyMojoTestCase;
 import org.apache.maven.plugins.dependency.utils.DependencyUtil;
 import org.apache.maven.plugins.dependency.utils.markers.DefaultFileMarkerHandler;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.StringUtils;
 import org.sonatype.aether.impl.internal.SimpleLocalRepositoryManager;
 import org.sonatype.aether.util.DefaultRepositorySystemSession;
@@ -292,9 +295,19 @@ public class TestLinkDependenciesMojo2
                         artifact.getBaseVersion(), artifact.getScope(),
                         artifact.getType());
                 assertArtifactExists(baseArtifact, targetRepository);
+
+                // the base version alias is a link to the same file, not a copy
+                File file = new File(targetRepository.getBasedir(), targetRepository.getLayout().pathOf(artifact));
+                File baseFile = new File(targetRepository.getBasedir(),
+                        targetRepository.getLayout().pathOf(baseArtifact));
+                assertEquals(Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey(),
+                        Files.readAttributes(baseFile.toPath(), BasicFileAttributes.class).fileKey());
             }
 
         }
+
+        File metadata = new File(outputDirectory, "testGroupId/expanded-snapshot/maven-metadata-local.xml");
+        assertTrue(FileUtils.fileRead(metadata).contains("<version>2.0-SNAPSHOT</version>"));
     }
 
     private Artifact createExpandedVersionArtifact(String baseVersion, String groupId, String artifactId, String scope,
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugins.dependency.testUtils.DependencyTestUtils;
+
+public class TestContentDigest
+        extends TestCase {
+
+    private File directory;
+
+    private File source;
+
+    private File destination;
+
+    @Override
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("content-digest").toFile();
+        source = write("source.jar", "reproducible bytes");
+        destination = write("destination.jar", "reproducible bytes");
+    }
+
+    @Override
+    protected void tearDown()
+            throws Exception {
+        DependencyTestUtils.removeDirectory(directory);
+        super.tearDown();
+    }
+
+    public void testSameContent()
+            throws IOException {
+        assertTrue(ContentDigest.isSameContent(source, destination, null));
+
+        write("destination.jar", "reproducible bytez");
+        assertFalse(ContentDigest.isSameContent(source, destination, null));
+
+        write("destination.jar", "other size");
+        assertFalse(ContentDigest.isSameContent(source, destination, null));
+
+        assertFalse(ContentDigest.isSameContent(source, new File(directory, "missing.jar"), null));
+    }
+
+    public void testSha1Sidecar()
+            throws IOException {
+        final String sha1 = "1234567890123456789012345678901234567890";
+        final File sidecar = write("source.jar.sha1", sha1 + "  source.jar\n");
+
+        // the sidecar of a local repository artifact is trusted over the source content
+        assertFalse(ContentDigest.isSameContent(source, destination, directory));
+
+        // outside of the local repository it is ignored
+        assertTrue(ContentDigest.isSameContent(source, destination, null));
+        assertTrue(ContentDigest.isSameContent(source, destination, new File(directory, "repository")));
+
+        write("source.jar.sha1", toHex(ContentDigest.digest(destination, "SHA-1")).toUpperCase());
+        assertTrue(ContentDigest.isSameContent(source, destination, directory));
+
+        // an older sidecar is ignored
+        write("source.jar.sha1", sha1);
+        assertTrue(sidecar.setLastModified(source.lastModified() - 10000));
+        assertTrue(ContentDigest.isSameContent(source, destination, directory));
+    }
+
+    public void testDigestOfSeveralBuffers()
+            throws Exception {
+        final byte[] content = new byte[2 * ContentDigest.BUFFER_SIZE + 17];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(source.toPath(), content);
+
+        assertTrue(Arrays.equals(MessageDigest.getInstance("SHA-256").digest(content),
+                ContentDigest.digest(source, "SHA-256")));
+        // nothing stays mapped or open
+        assertTrue(source.delete());
+    }
+
+    private File write(String name, String content)
+            throws IOException {
+        final File file = new File(directory, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
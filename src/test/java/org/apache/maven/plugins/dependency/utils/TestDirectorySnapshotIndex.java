@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugins.dependency.testUtils.DependencyTestUtils;
+
+public class TestDirectorySnapshotIndex
+        extends TestCase {
+
+    File outputFolder;
+
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+
+        outputFolder = new File("target/snapshot-index/");
+        DependencyTestUtils.removeDirectory(outputFolder);
+        assertTrue(outputFolder.mkdirs());
+    }
+
+    protected void tearDown()
+            throws IOException {
+        DependencyTestUtils.removeDirectory(outputFolder);
+    }
+
+    public void testSnapshotIsTakenOnce()
+            throws IOException {
+        final File existing = new File(outputFolder, "existing.jar");
+        Files.write(existing.toPath(), new byte[] { 1, 2, 3 });
+
+        final DirectorySnapshotIndex index = new DirectorySnapshotIndex();
+        assertTrue(index.exists(existing));
+        assertEquals(3, index.get(existing).getSize());
+        assertEquals(existing.lastModified(), index.get(existing).getLastModified());
+        assertNotNull(index.get(existing).getFileKey());
+
+        // files created behind the index back are not seen
+        final File created = new File(outputFolder, "created.jar");
+        assertTrue(created.createNewFile());
+        assertFalse(index.exists(created));
+
+        index.added(created);
+        assertTrue(index.exists(created));
+
+        index.removed(existing);
+        assertFalse(index.exists(existing));
+
+        index.refresh(existing);
+        assertTrue(index.exists(existing));
+    }
+
+    public void testMissingDirectory()
+            throws IOException {
+        final File directory = new File(outputFolder, "a/b");
+        final File file = new File(directory, "file.jar");
+
+        final DirectorySnapshotIndex index = new DirectorySnapshotIndex();
+        assertFalse(index.exists(file));
+
+        index.createDirectories(directory);
+        assertTrue(directory.isDirectory());
+
+        assertTrue(file.createNewFile());
+        index.added(file);
+        assertTrue(index.exists(file));
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+public class TestParallelTaskExecutor
+        extends TestCase {
+
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+
+    private final Log log = new SystemStreamLog() {
+        @Override
+        public void info(CharSequence content) {
+            messages.add(content.toString());
+        }
+    };
+
+    public void testResultsAndLogsKeepSubmissionOrder()
+            throws Exception {
+        final List<ParallelTaskExecutor.Task<Integer>> tasks = new ArrayList<ParallelTaskExecutor.Task<Integer>>();
+        for (int i = 0; i < 20; i++) {
+            final int index = i;
+            tasks.add(new ParallelTaskExecutor.Task<Integer>() {
+                @Override
+                public Integer execute(Log taskLog)
+                        throws MojoExecutionException {
+                    sleep((20 - index) % 5);
+                    taskLog.info("task " + index);
+                    return index;
+                }
+            });
+        }
+
+        final List<Integer> results = new ParallelTaskExecutor(4, log).execute(tasks);
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), results.get(i));
+            assertEquals("task " + i, messages.get(i));
+        }
+    }
+
+    public void testFirstFailureIsReportedAndStopsExecution()
+            throws Exception {
+        final AtomicInteger executed = new AtomicInteger();
+        final List<ParallelTaskExecutor.Task<Void>> tasks = new ArrayList<ParallelTaskExecutor.Task<Void>>();
+        for (int i = 0; i < 200; i++) {
+            final int index = i;
+            tasks.add(new ParallelTaskExecutor.Task<Void>() {
+                @Override
+                public Void execute(Log taskLog)
+                        throws MojoExecutionException {
+                    executed.incrementAndGet();
+                    if (index == 3 || index == 5) {
+                        throw new MojoExecutionException("failed " + index);
+                    }
+                    sleep(1);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            new ParallelTaskExecutor(2, log).execute(tasks);
+            fail("Expected MojoExecutionException");
+        } catch (final MojoExecutionException e) {
+            assertEquals("failed 3", e.getMessage());
+        }
+        assertTrue(executed.get() < 200);
+    }
+
+    public void testSerialExecution()
+            throws Exception {
+        final List<ParallelTaskExecutor.Task<String>> tasks = new ArrayList<ParallelTaskExecutor.Task<String>>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(new ParallelTaskExecutor.Task<String>() {
+                @Override
+                public String execute(Log taskLog) {
+                    assertSame(log, taskLog);
+                    return Thread.currentThread().getName();
+                }
+            });
+        }
+
+        final String thread = Thread.currentThread().getName();
+        for (final String taskThread : new ParallelTaskExecutor(1, log).execute(tasks)) {
+            assertEquals(thread, taskThread);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugins.dependency.testUtils.DependencyTestUtils;
+
+public class TestParentPomReader
+        extends TestCase {
+
+    File outputFolder;
+
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+
+        outputFolder = new File("target/parent-pom-reader/");
+        DependencyTestUtils.removeDirectory(outputFolder);
+        assertTrue(outputFolder.mkdirs());
+    }
+
+    protected void tearDown()
+            throws IOException {
+        DependencyTestUtils.removeDirectory(outputFolder);
+    }
+
+    public void testParent()
+            throws IOException {
+        final File pom = write("<?xml version=\"1.0\"?>\n"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "  <!-- comment -->\n"
+                + "  <properties><parent>ignored</parent></properties>\n"
+                + "  <parent>\n"
+                + "    <groupId> org.example </groupId>\n"
+                + "    <artifactId>parent</artifactId>\n"
+                + "    <version>1.0</version>\n"
+                + "    <relativePath>../pom.xml</relativePath>\n"
+                + "  </parent>\n"
+                + "  <artifactId>child</artifactId>\n"
+                + "  <broken>"); // never reached
+
+        final ParentPomReader.Parent parent = ParentPomReader.readParent(pom);
+        assertEquals("org.example", parent.getGroupId());
+        assertEquals("parent", parent.getArtifactId());
+        assertEquals("1.0", parent.getVersion());
+        assertTrue(parent.isLiteral());
+    }
+
+    public void testNoParent()
+            throws IOException {
+        final File pom = write("<project><groupId>org.example</groupId><artifactId>root</artifactId></project>");
+        assertNull(ParentPomReader.readParent(pom));
+    }
+
+    public void testInterpolatedVersion()
+            throws IOException {
+        final File pom = write("<project><parent><groupId>org.example</groupId><artifactId>parent</artifactId>"
+                + "<version>${revision}</version></parent></project>");
+        assertFalse(ParentPomReader.readParent(pom).isLiteral());
+    }
+
+    public void testMalformed()
+            throws IOException {
+        final File pom = write("this is not a pom");
+        try {
+            ParentPomReader.readParent(pom);
+            fail("Expected an IOException");
+        } catch (final IOException e) {
+            // expected
+        }
+    }
+
+    private File write(String content)
+            throws IOException {
+        final File pom = new File(outputFolder, "pom.xml");
+        Files.write(pom.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return pom;
+    }
+}
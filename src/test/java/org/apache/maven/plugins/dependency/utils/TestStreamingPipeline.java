@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+public class TestStreamingPipeline
+        extends TestCase {
+
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+
+    private final Log log = new SystemStreamLog() {
+        @Override
+        public void info(CharSequence content) {
+            messages.add(content.toString());
+        }
+    };
+
+    public void testResultsKeepInputOrderAndNullsSkipSecondStage()
+            throws Exception {
+        final List<Integer> inputs = new ArrayList<Integer>();
+        for (int i = 0; i < 50; i++) {
+            inputs.add(i);
+        }
+        final Set<Integer> processed = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+        final List<Integer> results = new StreamingPipeline(4, 2, log).execute(inputs,
+                new StreamingPipeline.Stage<Integer, Integer>() {
+                    @Override
+                    public Integer process(Integer input, Log inputLog) {
+                        sleep((50 - input) % 3);
+                        inputLog.info("first " + input);
+                        return input % 10 == 0 ? null : input * 2;
+                    }
+                }, new StreamingPipeline.Stage<Integer, Void>() {
+                    @Override
+                    public Void process(Integer input, Log inputLog) {
+                        processed.add(input);
+                        inputLog.info("second " + input);
+                        return null;
+                    }
+                });
+
+        assertEquals(50, results.size());
+        for (int i = 0; i < 50; i++) {
+            if (i % 10 == 0) {
+                assertNull(results.get(i));
+                assertFalse(processed.contains(i * 2));
+            } else {
+                assertEquals(Integer.valueOf(i * 2), results.get(i));
+                assertTrue(processed.contains(i * 2));
+                // the lines of an input are flushed together
+                final int first = messages.indexOf("first " + i);
+                assertEquals("second " + (i * 2), messages.get(first + 1));
+            }
+        }
+    }
+
+    public void testFirstFailureIsReportedAndStopsPipeline()
+            throws Exception {
+        final AtomicInteger executed = new AtomicInteger();
+        final List<Integer> inputs = new ArrayList<Integer>();
+        for (int i = 0; i < 200; i++) {
+            inputs.add(i);
+        }
+
+        try {
+            new StreamingPipeline(2, 2, log).execute(inputs, new StreamingPipeline.Stage<Integer, Integer>() {
+                @Override
+                public Integer process(Integer input, Log inputLog) {
+                    executed.incrementAndGet();
+                    sleep(1);
+                    return input;
+                }
+            }, new StreamingPipeline.Stage<Integer, Void>() {
+                @Override
+                public Void process(Integer input, Log inputLog)
+                        throws MojoExecutionException {
+                    if (input == 3) {
+                        throw new MojoExecutionException("failed " + input);
+                    }
+                    return null;
+                }
+            });
+            fail("Expected MojoExecutionException");
+        } catch (final MojoExecutionException e) {
+            assertEquals("failed 3", e.getMessage());
+        }
+        assertTrue(executed.get() < 200);
+    }
+
+    public void testSerialExecution()
+            throws Exception {
+        final String thread = Thread.currentThread().getName();
+        final List<String> results = new StreamingPipeline(1, 1, log).execute(Collections.nCopies(3, "input"),
+                new StreamingPipeline.Stage<String, String>() {
+                    @Override
+                    public String process(String input, Log inputLog) {
+                        assertSame(log, inputLog);
+                        return Thread.currentThread().getName();
+                    }
+                }, new StreamingPipeline.Stage<String, Void>() {
+                    @Override
+                    public Void process(String input, Log inputLog) {
+                        assertEquals(thread, Thread.currentThread().getName());
+                        return null;
+                    }
+                });
+
+        assertEquals(Collections.nCopies(3, thread), results);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2017 Marvin Herman Froeder (marvin@marvinformatics.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.maven.plugins.dependency.utils.filters;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.dependency.testUtils.DependencyArtifactStubFactory;
+import org.apache.maven.plugins.dependency.testUtils.DependencyTestUtils;
+import org.apache.maven.shared.artifact.filter.collection.ArtifactFilterException;
+import org.apache.maven.shared.artifact.filter.collection.ArtifactIdFilter;
+import org.apache.maven.shared.artifact.filter.collection.ArtifactsFilter;
+import org.apache.maven.shared.artifact.filter.collection.ClassifierFilter;
+import org.apache.maven.shared.artifact.filter.collection.FilterArtifacts;
+import org.apache.maven.shared.artifact.filter.collection.GroupIdFilter;
+import org.apache.maven.shared.artifact.filter.collection.ProjectTransitivityFilter;
+import org.apache.maven.shared.artifact.filter.collection.ScopeFilter;
+import org.apache.maven.shared.artifact.filter.collection.TypeFilter;
+
+public class TestCompiledArtifactFilter
+        extends TestCase {
+
+    File outputFolder;
+
+    Set<Artifact> artifacts;
+
+    Set<Artifact> directArtifacts;
+
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+
+        outputFolder = new File("target/compiled-filter/");
+        DependencyTestUtils.removeDirectory(outputFolder);
+
+        final DependencyArtifactStubFactory fact = new DependencyArtifactStubFactory(outputFolder, false);
+        directArtifacts = fact.getReleaseAndSnapshotArtifacts();
+        artifacts = new LinkedHashSet<Artifact>();
+        artifacts.addAll(fact.getScopedArtifacts());
+        artifacts.addAll(fact.getTypedArtifacts());
+        artifacts.addAll(fact.getClassifiedArtifacts());
+        artifacts.addAll(directArtifacts);
+        artifacts.add(fact.createArtifact("org.apache.maven.plugins", "one", "1.0"));
+        artifacts.add(fact.createArtifact("org.apache", "two", "1.0"));
+    }
+
+    protected void tearDown()
+            throws IOException {
+        DependencyTestUtils.removeDirectory(outputFolder);
+    }
+
+    public void testSameResultsAsChainedFilters()
+            throws ArtifactFilterException {
+        assertSameResults(false, "", "", "", "", "", "", "", "", "", "");
+        assertSameResults(true, "", "", "", "", "", "", "", "", "", "");
+        assertSameResults(false, "compile", "", "", "", "", "", "", "", "", "");
+        assertSameResults(false, "provided", "", "", "", "", "", "", "", "", "");
+        assertSameResults(false, "", "runtime", "", "", "", "", "", "", "", "");
+        assertSameResults(false, "", "system", "", "", "", "", "", "", "", "");
+        assertSameResults(false, "", "", "war,jar", "", "", "", "", "", "", "");
+        assertSameResults(false, "", "", "", "war", "one,two", "", "", "", "", "");
+        assertSameResults(false, "", "", "", "", "", "one", "", "", "", "");
+        assertSameResults(false, "", "", "", "", "", "", "org.apache.m", "", "", "");
+        assertSameResults(false, "", "", "", "", "", "", "", "org.apache.maven", "", "");
+        assertSameResults(false, "", "", "", "", "", "", "", "", "one,two,release", "");
+        assertSameResults(false, "", "", "", "", "", "", "org.apache", "org.apache.maven.plugins", "", "two");
+    }
+
+    public void testInvalidScope() {
+        try {
+            new CompiledArtifactFilter(null, "", "test", "", "", "", "", "", "", "", "");
+            fail("test scope can't be excluded");
+        } catch (final ArtifactFilterException e) {
+            // expected
+        }
+        try {
+            new CompiledArtifactFilter(null, "other", "", "", "", "", "", "", "", "", "");
+            fail("other is not a scope");
+        } catch (final ArtifactFilterException e) {
+            // expected
+        }
+    }
+
+    public void testPartition()
+            throws ArtifactFilterException {
+        final CompiledArtifactFilter filter = new CompiledArtifactFilter(null, "", "", "", "", "", "", "", "", "",
+                "two");
+        final ArtifactsFilter marked = new TypeFilter("", "war");
+
+        final Set<Artifact> included = new LinkedHashSet<Artifact>();
+        final Set<Artifact> skipped = new LinkedHashSet<Artifact>();
+        filter.partition(artifacts, marked, included, skipped);
+
+        for (final Artifact artifact : artifacts) {
+            final boolean accepted = !"two".equals(artifact.getArtifactId());
+            assertEquals(artifact.toString(), accepted && !"war".equals(artifact.getType()),
+                    included.contains(artifact));
+            assertEquals(artifact.toString(), accepted && "war".equals(artifact.getType()),
+                    skipped.contains(artifact));
+        }
+    }
+
+    private void assertSameResults(boolean excludeTransitive, String includeScope, String excludeScope,
+            String includeTypes, String excludeTypes, String includeClassifiers, String excludeClassifiers,
+            String includeGroupIds, String excludeGroupIds, String includeArtifactIds, String excludeArtifactIds)
+            throws ArtifactFilterException {
+        final FilterArtifacts chain = new FilterArtifacts();
+        chain.addFilter(new ProjectTransitivityFilter(directArtifacts, excludeTransitive));
+        chain.addFilter(new ScopeFilter(includeScope, excludeScope));
+        chain.addFilter(new TypeFilter(includeTypes, excludeTypes));
+        chain.addFilter(new ClassifierFilter(includeClassifiers, excludeClassifiers));
+        chain.addFilter(new GroupIdFilter(includeGroupIds, excludeGroupIds));
+        chain.addFilter(new ArtifactIdFilter(includeArtifactIds, excludeArtifactIds));
+
+        final CompiledArtifactFilter compiled = new CompiledArtifactFilter(excludeTransitive ? directArtifacts : null,
+                includeScope, excludeScope, includeTypes, excludeTypes, includeClassifiers, excludeClassifiers,
+                includeGroupIds, excludeGroupIds, includeArtifactIds, excludeArtifactIds);
+
+        final Set<Artifact> expected = new HashSet<Artifact>(chain.filter(artifacts));
+        assertEquals(expected, new HashSet<Artifact>(compiled.filter(artifacts)));
+    }
+}
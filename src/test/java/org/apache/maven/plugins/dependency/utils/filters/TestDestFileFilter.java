@@ -36,6 +36,7 @@ package org.apache.maven.plugins.dependency.utils.filters;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -46,6 +47,8 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.dependency.testUtils.DependencyArtifactStubFactory;
 import org.apache.maven.plugins.dependency.testUtils.DependencyTestUtils;
 import org.apache.maven.plugins.dependency.utils.DependencyUtil;
+import org.apache.maven.plugins.dependency.utils.DirectorySnapshotIndex;
+import org.apache.maven.plugins.dependency.utils.LinkPlan;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.testing.SilentLog;
 import org.apache.maven.shared.artifact.filter.collection.ArtifactFilterException;
@@ -104,6 +107,94 @@ public class TestDestFileFilter
         return destFile;
     }
 
+    public void testFileIdentity()
+            throws IOException, ArtifactFilterException {
+        DestFileFilter filter = new DestFileFilter(outputFolder);
+        filter.setCompareFileIdentity(true);
+        filter.setOverWriteReleases(true);
+        Artifact artifact = fact.getReleaseArtifact();
+        File source = new File(outputFolder, "source.jar");
+        outputFolder.mkdirs();
+        assertTrue(source.createNewFile());
+        artifact.setFile(source);
+
+        // missing destination
+        assertTrue(filter.isArtifactIncluded(artifact));
+
+        // linked destination is never overwritten
+        File destFile = new File(outputFolder, DependencyUtil.getFormattedFileName(artifact, false));
+        Files.createLink(destFile.toPath(), source.toPath());
+        assertFalse(filter.isArtifactIncluded(artifact));
+
+        // a different file falls back to the overwrite rules
+        assertTrue(destFile.delete());
+        assertTrue(destFile.createNewFile());
+        assertTrue(filter.isArtifactIncluded(artifact));
+        filter.setOverWriteReleases(false);
+        assertFalse(filter.isArtifactIncluded(artifact));
+
+        filter.setOverWriteIfNewer(true);
+        assertTrue(destFile.setLastModified(source.lastModified() - 10000));
+        assertTrue(filter.isArtifactIncluded(artifact));
+    }
+
+    public void testCompareContent()
+            throws IOException, ArtifactFilterException {
+        DestFileFilter filter = new DestFileFilter(outputFolder);
+        filter.setOverWriteReleases(true);
+        Artifact artifact = fact.getReleaseArtifact();
+        File source = new File(outputFolder, "source.jar");
+        outputFolder.mkdirs();
+        Files.write(source.toPath(), "rebuilt".getBytes("UTF-8"));
+        artifact.setFile(source);
+
+        File destFile = new File(outputFolder, DependencyUtil.getFormattedFileName(artifact, false));
+        Files.write(destFile.toPath(), "rebuilt".getBytes("UTF-8"));
+        assertTrue(filter.isArtifactIncluded(artifact));
+
+        // same bytes in another file are kept
+        filter.setCompareContent(true);
+        assertFalse(filter.isArtifactIncluded(artifact));
+        filter.setDestinationIndex(new DirectorySnapshotIndex());
+        assertFalse(filter.isArtifactIncluded(artifact));
+
+        Files.write(destFile.toPath(), "previous".getBytes("UTF-8"));
+        assertTrue(filter.isArtifactIncluded(artifact));
+    }
+
+    public void testPlan()
+            throws IOException {
+        DestFileFilter filter = new DestFileFilter(outputFolder);
+        filter.setRemoveClassifier(true);
+        Artifact artifact = fact.getSnapshotArtifact();
+
+        LinkPlan plan = filter.plan(artifact);
+        assertSame(artifact, plan.getArtifact());
+        assertSame(artifact.getFile(), plan.getSource());
+        assertEquals(LinkPlan.Decision.LINK, plan.getDecision());
+
+        File destFile = createFile(artifact, false, false, false, true);
+        assertEquals(destFile, plan.getDestination());
+        assertEquals(destFile.getParentFile(), plan.getDirectory());
+        assertEquals(LinkPlan.Decision.SKIP, filter.plan(artifact).getDecision());
+    }
+
+    public void testDestinationIndex()
+            throws IOException, ArtifactFilterException {
+        DestFileFilter filter = new DestFileFilter(outputFolder);
+        filter.setDestinationIndex(new DirectorySnapshotIndex());
+        Artifact artifact = fact.getReleaseArtifact();
+
+        assertTrue(filter.isArtifactIncluded(artifact));
+
+        // answered from the snapshot taken by the first check
+        createFile(artifact);
+        assertTrue(filter.isArtifactIncluded(artifact));
+
+        filter.setDestinationIndex(new DirectorySnapshotIndex());
+        assertFalse(filter.isArtifactIncluded(artifact));
+    }
+
     public void testDestFileRelease()
             throws IOException, ArtifactFilterException {
         DestFileFilter filter = new DestFileFilter(outputFolder);